@@ -0,0 +1,70 @@
+package snake.benchmark;
+
+import snake.engine.SnakeBody;
+
+/**
+ * Helpers preparing boards for benchmarks
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+final class Boards {
+	private Boards() {
+	}
+
+	/**
+	 * Returns the side of a square board where a snake of {@code length} takes
+	 * {@code fillRatio} of cells
+	 * 
+	 * @param length
+	 * @param fillRatio
+	 * @return side of a board in cells
+	 */
+	static int side(int length, double fillRatio) {
+		return Math.max(2, (int) Math.ceil(Math.sqrt(length / fillRatio)));
+	}
+
+	/**
+	 * Returns {@code i}-th cell of a path going along rows, changing direction on
+	 * every row, so neighbouring cells of a path are neighbours on a board
+	 * 
+	 * @param i
+	 * @param side - side of a board
+	 * @return cell of a board
+	 */
+	static int pathCell(int i, int side) {
+		int row = i / side;
+		int column = row % 2 == 0 ? i % side : side - 1 - i % side;
+		return row * side + column;
+	}
+
+	/**
+	 * Puts a snake of {@code length} on a path of {@code pathCell}, the head is the
+	 * last cell
+	 * 
+	 * @param body
+	 * @param length
+	 * @param side   - side of a board
+	 */
+	static void layOut(SnakeBody body, int length, int side) {
+		body.clear();
+		for (int i = 0; i < length; i++) {
+			body.pushHead(pathCell(i, side));
+		}
+	}
+
+	/**
+	 * Puts a snake of {@code length} on the first cells in order of indices, the
+	 * head is the last cell. A head going right and wrapping to the next row then
+	 * always finds a free cell while the snake is shorter than the board
+	 * 
+	 * @param body
+	 * @param length
+	 */
+	static void layOutInRows(SnakeBody body, int length) {
+		body.clear();
+		for (int i = 0; i < length; i++) {
+			body.pushHead(i);
+		}
+	}
+}
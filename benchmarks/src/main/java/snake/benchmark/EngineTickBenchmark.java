@@ -0,0 +1,56 @@
+package snake.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import snake.bot.GreedyBot;
+import snake.engine.GameEngine;
+
+/**
+ * A whole tick of a headless game played by {@code GreedyBot}, a new game is
+ * started when the previous one is finished
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineTickBenchmark {
+	@Param({ "25", "1000", "10000" })
+	int side;
+
+	GameEngine engine;
+	GreedyBot bot;
+
+	@Setup
+	public void setUp() {
+		engine = new GameEngine(side, side);
+		engine.setSeed(42);
+		bot = new GreedyBot();
+		engine.initGame();
+	}
+
+	@Benchmark
+	public boolean tick() {
+		if (!engine.isGameRunning()) {
+			engine.initGame();
+		}
+		engine.changeDirection(bot.nextDirection(engine));
+		return engine.tick();
+	}
+}
@@ -0,0 +1,58 @@
+package snake.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import snake.engine.OccupancyGrid;
+import snake.engine.SnakeBody;
+
+/**
+ * Picking a cell for a fruit, which was
+ * {@code FruitFactory.createAppleOnRandomPosition()} before the engine was
+ * separated from JavaFX. Boards above {@code OccupancyGrid.MAX_INDEXED_CELLS}
+ * are sampled without an index
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreeCellBenchmark {
+	@Param({ "10", "1000", "100000" })
+	int length;
+
+	@Param({ "0.1", "0.5", "0.9", "0.99" })
+	double fillRatio;
+
+	OccupancyGrid grid;
+	Random random;
+
+	@Setup
+	public void setUp() {
+		int side = Boards.side(length, fillRatio);
+		grid = new OccupancyGrid(side, side);
+		Boards.layOut(new SnakeBody(grid), length, side);
+		random = new Random(42);
+	}
+
+	@Benchmark
+	public int randomFreeCell() {
+		return grid.randomFreeCell(random);
+	}
+}
@@ -0,0 +1,70 @@
+package snake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import snake.results.Results;
+import snake.results.ResultsSerializer;
+
+/**
+ * Saving and reading results of a game in a temporary file, so results of a
+ * player are not touched
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultsSerializerBenchmark {
+	File file;
+	Results results;
+
+	@Setup
+	public void setUp() throws IOException {
+		file = File.createTempFile("SnakeGameResults", ".json");
+		results = new Results();
+		results.setLength(624);
+		results.setTimeMinutes(42);
+		results.setCountOfEatenApples(500);
+		results.setCountOfEatenOranges(62);
+		ResultsSerializer.serializeResults(results, file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public void serialize() {
+		ResultsSerializer.serializeResults(results, file);
+	}
+
+	@Benchmark
+	public Results deserialize() {
+		return ResultsSerializer.deserializeExistingResults(file);
+	}
+
+	@Benchmark
+	public Results roundTrip() {
+		ResultsSerializer.serializeResults(results, file);
+		return ResultsSerializer.deserializeExistingResults(file);
+	}
+}
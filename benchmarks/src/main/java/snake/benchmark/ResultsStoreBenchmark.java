@@ -0,0 +1,82 @@
+package snake.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import snake.results.Results;
+import snake.results.ResultsStore;
+
+/**
+ * Queries over the history of games in a temporary binary store
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultsStoreBenchmark {
+	@Param({ "10000", "1000000" })
+	int games;
+
+	File file;
+	ResultsStore store;
+
+	@Setup
+	public void setUp() throws IOException {
+		file = File.createTempFile("SnakeGameResults", ".bin");
+		file.delete();
+		store = new ResultsStore(file);
+		Random random = new Random(42);
+		List<Results> batch = new ArrayList<>();
+		for (int i = 0; i < games; i++) {
+			Results results = new Results();
+			results.setLength(random.nextInt(625));
+			results.setTimeMinutes(random.nextInt(60));
+			results.setTimestamp(i);
+			batch.add(results);
+		}
+		store.append(batch);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		store.close();
+		file.delete();
+	}
+
+	@Benchmark
+	public int[] best10() {
+		return store.best(10);
+	}
+
+	@Benchmark
+	public int lengthPercentile99() {
+		return store.lengthPercentile(99);
+	}
+
+	@Benchmark
+	public int scanHalf() {
+		return store.scan(0, games / 2, null);
+	}
+}
@@ -0,0 +1,91 @@
+package snake.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import snake.engine.OccupancyGrid;
+import snake.engine.SnakeBody;
+
+/**
+ * Moving, growing and self-collision of a snake. These were
+ * {@code Snake.moveBody()}/{@code updatePreviousPositions()},
+ * {@code Snake.addPart()} and {@code Snake.runIntoYourself()} before the engine
+ * was separated from JavaFX
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeBodyBenchmark {
+	@Param({ "10", "1000", "100000" })
+	int length;
+
+	@Param({ "0.1", "0.5", "0.9" })
+	double fillRatio;
+
+	OccupancyGrid grid;
+	SnakeBody body;
+	int side;
+	int probe;
+
+	@Setup
+	public void setUp() {
+		side = Boards.side(length, fillRatio);
+		grid = new OccupancyGrid(side, side);
+		body = new SnakeBody(grid);
+		Boards.layOutInRows(body, length);
+	}
+
+	/**
+	 * One move as {@code GameEngine} makes it: the next cell of the head is
+	 * checked, the tail is released and the next cell is pushed as a new head.
+	 * The head goes right and wraps to the next row
+	 */
+	@Benchmark
+	public int move() {
+		int next = body.head() + 1;
+		if (next == grid.size()) {
+			next = 0;
+		}
+		if (grid.isOccupied(next)) {
+			throw new IllegalStateException("Snake has run into itself");
+		}
+		body.popTail();
+		body.pushHead(next);
+		return next;
+	}
+
+	/**
+	 * Check of a cell against the whole body
+	 */
+	@Benchmark
+	public boolean selfCollision() {
+		probe = (probe + 7919) % grid.size();
+		return grid.isOccupied(probe);
+	}
+
+	/**
+	 * Growing a snake from nothing to {@code length}
+	 */
+	@Benchmark
+	public int addParts() {
+		Boards.layOut(body, length, side);
+		return body.size();
+	}
+}
@@ -0,0 +1,88 @@
+package snake.batch;
+
+import java.util.List;
+
+import snake.bot.GreedyBot;
+import snake.engine.ArenaEngine;
+import snake.engine.ArenaSnake;
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+import snake.interfaces.IArenaBot;
+
+/**
+ * Plays an arena of bot snakes until all of them die or a limit of ticks is
+ * reached and prints how fast it was
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ArenaRunner {
+	// =============== Constants ===============
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	// =============== Methods ===============
+	/**
+	 * Plays an arena
+	 * 
+	 * @param arena    - arena with added snakes
+	 * @param bot      - plays every snake
+	 * @param maxTicks - limit of ticks
+	 * @return count of moves of all snakes
+	 */
+	public static long play(ArenaEngine arena, IArenaBot bot, long maxTicks) {
+		List<ArenaSnake> snakes = arena.getSnakes();
+		long moves = 0;
+		while (arena.isRunning() && arena.getTickCount() < maxTicks) {
+			for (int i = 0; i < snakes.size(); i++) {
+				ArenaSnake snake = snakes.get(i);
+				if (snake.isAlive()) {
+					snake.changeDirection(bot.nextDirection(arena, snake));
+				}
+			}
+			moves += arena.getAliveCount();
+			arena.tick();
+		}
+		return moves;
+	}
+
+	/**
+	 * @param args - count of snakes, width, height, count of fruits, limit of
+	 *             ticks
+	 */
+	public static void main(String[] args) {
+		int snakeCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int width = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+		int height = args.length > 2 ? Integer.parseInt(args[2]) : width;
+		int fruitCount = args.length > 3 ? Integer.parseInt(args[3]) : snakeCount / 2;
+		long maxTicks = args.length > 4 ? Long.parseLong(args[4]) : 100_000;
+		ArenaEngine arena = new ArenaEngine(width, height, fruitCount);
+		arena.setSeed(0);
+		for (int i = 0; i < snakeCount; i++) {
+			arena.addSnake(DIRECTIONS[i % DIRECTIONS.length]);
+		}
+		long start = System.nanoTime();
+		long moves = play(arena, new GreedyBot(), maxTicks);
+		long nanos = Math.max(1, System.nanoTime() - start);
+
+		int[] deaths = new int[FinishReason.values().length];
+		int longest = 0;
+		for (ArenaSnake snake : arena.getSnakes()) {
+			if (!snake.isAlive()) {
+				deaths[snake.getDeathReason().ordinal()]++;
+			}
+			longest = Math.max(longest, snake.getCountOfEatenFruits());
+		}
+		System.out.printf("%d ticks, %d of %d snakes alive, most fruits eaten by one snake: %d%n",
+				arena.getTickCount(), arena.getAliveCount(), snakeCount, longest);
+		for (FinishReason reason : FinishReason.values()) {
+			if (deaths[reason.ordinal()] > 0) {
+				System.out.printf("  %s: %d%n", reason, deaths[reason.ordinal()]);
+			}
+		}
+		System.out.printf("%.0f ms, %.0f ticks/s, %.0f snake moves/s%n", nanos / 1e6,
+				arena.getTickCount() * 1e9 / nanos, moves * 1e9 / nanos);
+	}
+}
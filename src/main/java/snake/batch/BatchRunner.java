@@ -0,0 +1,139 @@
+package snake.batch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import snake.bot.GreedyBot;
+import snake.bot.PathBot;
+import snake.engine.GameEngine;
+import snake.interfaces.IBot;
+import snake.results.Results;
+
+/**
+ * Plays many independent headless games in parallel on a
+ * {@code ForkJoinPool}. Every worker thread has its own engine and bot, game
+ * {@code i} is played with seed {@code firstSeed + i}, so results do not depend
+ * on how games are spread over threads
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class BatchRunner {
+	// =============== Constants ===============
+	/**
+	 * Default limit of ticks of one game
+	 */
+	public static final long MAX_TICKS = 1_000_000;
+	/**
+	 * Pool running games
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Engine of every worker thread
+	 */
+	private final ThreadLocal<GameEngine> engines;
+	/**
+	 * Bot of every worker thread
+	 */
+	private final ThreadLocal<IBot> bots;
+
+	// =============== Fields ===============
+	/**
+	 * Limit of ticks of one game, a game is stopped when it is reached
+	 */
+	private long maxTicks = MAX_TICKS;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a runner on the common pool
+	 * 
+	 * @param width      - width of a board in cells
+	 * @param height     - height of a board in cells
+	 * @param botFactory - creates a bot for every worker thread
+	 */
+	public BatchRunner(int width, int height, Supplier<? extends IBot> botFactory) {
+		this(ForkJoinPool.commonPool(), width, height, botFactory);
+	}
+
+	/**
+	 * @param pool       - pool running games
+	 * @param width      - width of a board in cells
+	 * @param height     - height of a board in cells
+	 * @param botFactory - creates a bot for every worker thread
+	 */
+	public BatchRunner(ForkJoinPool pool, int width, int height, Supplier<? extends IBot> botFactory) {
+		this.pool = pool;
+		engines = ThreadLocal.withInitial(() -> new GameEngine(width, height));
+		bots = ThreadLocal.withInitial(botFactory);
+	}
+
+	// =============== Get/Set ===============
+	public void setMaxTicks(long maxTicks) {
+		this.maxTicks = maxTicks;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Plays {@code games} games and waits until all of them are finished
+	 * 
+	 * @param games     - count of games
+	 * @param firstSeed - seed of the first game
+	 * @param listener  - receives results and seed of every game, is called from
+	 *                  worker threads concurrently, may be null
+	 * @return statistics of all games
+	 */
+	public BatchStatistics run(int games, long firstSeed, ObjLongConsumer<Results> listener) {
+		return pool.submit(() -> LongStream.range(firstSeed, firstSeed + games).parallel().collect(
+				BatchStatistics::new, (statistics, seed) -> play(seed, statistics, listener),
+				BatchStatistics::combine)).join();
+	}
+
+	/**
+	 * Plays one game on the current thread
+	 * 
+	 * @param seed       - seed of a game
+	 * @param statistics - statistics of the current thread
+	 * @param listener   - may be null
+	 */
+	private void play(long seed, BatchStatistics statistics, ObjLongConsumer<Results> listener) {
+		GameEngine engine = engines.get();
+		IBot bot = bots.get();
+		engine.setSeed(seed);
+		engine.initGame();
+		while (engine.isGameRunning()) {
+			if (engine.getTickCount() >= maxTicks) {
+				engine.finishGame();
+				break;
+			}
+			engine.changeDirection(bot.nextDirection(engine));
+			engine.tick();
+		}
+		Results results = engine.getCurrentResults();
+		statistics.accept(results, engine.getTickCount(), engine.getFinishReason());
+		if (listener != null) {
+			listener.accept(results, seed);
+		}
+	}
+
+	/**
+	 * Plays games with a bot and prints statistics
+	 * 
+	 * @param args - count of games, width and height of a board, bot:
+	 *             {@code greedy} or {@code path}
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int width = args.length > 1 ? Integer.parseInt(args[1]) : 25;
+		int height = args.length > 2 ? Integer.parseInt(args[2]) : width;
+		Supplier<IBot> botFactory = args.length > 3 && "path".equals(args[3]) ? PathBot::new : GreedyBot::new;
+		BatchRunner runner = new BatchRunner(width, height, botFactory);
+		long start = System.nanoTime();
+		BatchStatistics statistics = runner.run(games, 0, null);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		System.out.println(statistics);
+		System.out.printf("%d ms, %.0f ticks/s on %d threads%n", millis,
+				statistics.getTotalTicks() * 1000.0 / Math.max(1, millis), runner.pool.getParallelism());
+	}
+}
@@ -0,0 +1,144 @@
+package snake.batch;
+
+import snake.engine.FinishReason;
+import snake.results.Results;
+
+/**
+ * Aggregate statistics of many games. Every thread fills its own instance,
+ * instances are merged with {@code combine}
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class BatchStatistics {
+	// =============== Constants ===============
+	/**
+	 * Count of games by reasons of finishing
+	 */
+	private final long[] countsByReason = new long[FinishReason.values().length];
+
+	// =============== Fields ===============
+	/**
+	 * Count of games
+	 */
+	private long games;
+	/**
+	 * Sum of ticks of all games
+	 */
+	private long totalTicks;
+	/**
+	 * Sum of lengths of all games
+	 */
+	private long totalLength;
+	/**
+	 * Minimal length
+	 */
+	private int minLength = Integer.MAX_VALUE;
+	/**
+	 * Maximal length
+	 */
+	private int maxLength;
+	/**
+	 * Sum of eaten apples
+	 */
+	private long totalApples;
+	/**
+	 * Sum of eaten oranges
+	 */
+	private long totalOranges;
+
+	// =============== Get/Set ===============
+	public long getGames() {
+		return games;
+	}
+
+	public long getTotalTicks() {
+		return totalTicks;
+	}
+
+	public int getMinLength() {
+		return games == 0 ? 0 : minLength;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	public double getAverageLength() {
+		return games == 0 ? 0 : (double) totalLength / games;
+	}
+
+	public double getAverageTicks() {
+		return games == 0 ? 0 : (double) totalTicks / games;
+	}
+
+	public long getTotalApples() {
+		return totalApples;
+	}
+
+	public long getTotalOranges() {
+		return totalOranges;
+	}
+
+	/**
+	 * Returns count of games finished for {@code reason}
+	 * 
+	 * @param reason
+	 * @return count of games
+	 */
+	public long getCount(FinishReason reason) {
+		return countsByReason[reason.ordinal()];
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds one game
+	 * 
+	 * @param results - results of a game
+	 * @param ticks   - count of ticks of a game
+	 * @param reason  - why a game is finished
+	 */
+	public void accept(Results results, long ticks, FinishReason reason) {
+		games++;
+		totalTicks += ticks;
+		totalLength += results.getLength();
+		minLength = Math.min(minLength, results.getLength());
+		maxLength = Math.max(maxLength, results.getLength());
+		totalApples += results.getCountOfEatenApples();
+		totalOranges += results.getCountOfEatenOranges();
+		countsByReason[reason.ordinal()]++;
+	}
+
+	/**
+	 * Adds all games of {@code other}
+	 * 
+	 * @param other
+	 */
+	public void combine(BatchStatistics other) {
+		games += other.games;
+		totalTicks += other.totalTicks;
+		totalLength += other.totalLength;
+		minLength = Math.min(minLength, other.minLength);
+		maxLength = Math.max(maxLength, other.maxLength);
+		totalApples += other.totalApples;
+		totalOranges += other.totalOranges;
+		for (int i = 0; i < countsByReason.length; i++) {
+			countsByReason[i] += other.countsByReason[i];
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("games: ").append(games);
+		builder.append(", ticks: ").append(totalTicks);
+		builder.append(String.format(", length avg/min/max: %.2f/%d/%d", getAverageLength(), getMinLength(),
+				getMaxLength()));
+		builder.append(", apples: ").append(totalApples);
+		builder.append(", oranges: ").append(totalOranges);
+		for (FinishReason reason : FinishReason.values()) {
+			builder.append(", ").append(reason.name().toLowerCase()).append(": ").append(getCount(reason));
+		}
+		return builder.toString();
+	}
+}
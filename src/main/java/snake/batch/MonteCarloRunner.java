@@ -0,0 +1,57 @@
+package snake.batch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import snake.bot.MonteCarloBot;
+import snake.engine.GameEngine;
+
+/**
+ * Plays headless games by {@code MonteCarloBot} on pools of 1, 2, 4... workers
+ * up to count of processors and prints how many playouts per second every pool
+ * makes. A finished game is restarted at once
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class MonteCarloRunner {
+	// =============== Methods ===============
+	/**
+	 * @param args - width and height of a board, seconds to play on every pool,
+	 *             budget of a tick in milliseconds
+	 */
+	public static void main(String[] args) {
+		int width = args.length > 0 ? Integer.parseInt(args[0]) : 25;
+		int height = args.length > 1 ? Integer.parseInt(args[1]) : width;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		long budget = args.length > 3 ? Long.parseLong(args[3]) : MonteCarloBot.DEFAULT_BUDGET_MILLIS;
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (int workers = 1;; workers = Math.min(workers * 2, processors)) {
+			ForkJoinPool pool = new ForkJoinPool(workers);
+			MonteCarloBot bot = new MonteCarloBot(pool, budget, TimeUnit.MILLISECONDS);
+			GameEngine engine = new GameEngine(width, height);
+			engine.setSeed(0);
+			engine.initGame();
+			int games = 0;
+			long apples = 0;
+			long start = System.nanoTime();
+			long end = start + TimeUnit.SECONDS.toNanos(seconds);
+			while (System.nanoTime() < end) {
+				engine.changeDirection(bot.nextDirection(engine));
+				if (!engine.tick()) {
+					games++;
+					apples += engine.getCountOfEatenApples();
+					engine.setSeed(games);
+					engine.initGame();
+				}
+			}
+			double elapsed = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%d workers: %.0f playouts/s, %d games finished, %d apples in them, length now %d%n",
+					workers, bot.getPlayoutCount() / elapsed, games, apples, engine.getLength());
+			pool.shutdown();
+			if (workers == processors) {
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package snake.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import snake.bot.GreedyBot;
+import snake.engine.GameEngine;
+import snake.engine.GameMetrics;
+import snake.engine.SessionScheduler;
+import snake.interfaces.IBot;
+import snake.interfaces.ITickScheduler;
+
+/**
+ * Plays many live games by bots in real time on one {@code SessionScheduler}
+ * and prints how late their ticks were. A finished game is restarted at once
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class SessionRunner {
+	// =============== Methods ===============
+	/**
+	 * @param args - count of games, ticks per second, seconds to play, count of
+	 *             workers
+	 * @throws InterruptedException if the main thread is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int ticksPerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		SessionScheduler sessions = new SessionScheduler(workers);
+		GameMetrics metrics = new GameMetrics();
+		IBot bot = new GreedyBot();
+		List<ITickScheduler> schedulers = new ArrayList<>();
+		for (int i = 0; i < games; i++) {
+			GameEngine engine = new GameEngine(25, 25);
+			engine.setSeed(i);
+			engine.initGame();
+			ITickScheduler scheduler = sessions.newTickScheduler(ticksPerSecond);
+			scheduler.setMetrics(metrics);
+			scheduler.start(() -> {
+				engine.changeDirection(bot.nextDirection(engine));
+				if (!engine.tick()) {
+					engine.initGame();
+				}
+				return true;
+			});
+			schedulers.add(scheduler);
+		}
+		for (int i = 0; i < seconds; i++) {
+			TimeUnit.SECONDS.sleep(1);
+			System.out.printf("%d ticks, lag p50 %d us, p99 %d us, max %d us, tick p99 %d us, %d threads%n",
+					metrics.getTickCount(), metrics.getSchedulingLagP50(), metrics.getSchedulingLagP99(),
+					metrics.getSchedulingLagMax(), metrics.getTickDurationP99(), Thread.activeCount());
+			metrics.reset();
+		}
+		for (ITickScheduler scheduler : schedulers) {
+			scheduler.stop();
+		}
+		sessions.shutdown();
+	}
+}
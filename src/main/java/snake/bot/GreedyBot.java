@@ -0,0 +1,72 @@
+package snake.bot;
+
+import snake.engine.ArenaEngine;
+import snake.engine.ArenaSnake;
+import snake.engine.Direction;
+import snake.engine.GameEngine;
+import snake.engine.OccupancyGrid;
+import snake.interfaces.IArenaBot;
+import snake.interfaces.IBot;
+
+/**
+ * Simple bot going straight to an apple. Avoids cells where it would crash on
+ * the next tick, but does not look further. In an arena every snake goes to
+ * its own fruit, chosen by id of the snake
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class GreedyBot implements IBot, IArenaBot {
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	@Override
+	public Direction nextDirection(GameEngine engine) {
+		return nextDirection(engine.getHeadX(), engine.getHeadY(), engine.getAppleCell(), engine.getOccupancy(),
+				engine.getCurrentDirection());
+	}
+
+	@Override
+	public Direction nextDirection(ArenaEngine arena, ArenaSnake snake) {
+		int width = arena.getWidth();
+		int fruit = arena.getFruitCount() == 0 ? -1 : arena.getFruitCell(snake.getId() % arena.getFruitCount());
+		return nextDirection(snake.getHead() % width, snake.getHead() / width, fruit, arena.getOccupancy(),
+				snake.getDirection());
+	}
+
+	/**
+	 * Chooses a free neighbour cell closest to a fruit
+	 * 
+	 * @param x       - column of the head
+	 * @param y       - row of the head
+	 * @param fruit   - cell of the fruit, -1 to keep away from crashes only
+	 * @param grid    - cells occupied by snakes
+	 * @param current - current direction
+	 * @return direction of the next tick
+	 */
+	private static Direction nextDirection(int x, int y, int fruit, OccupancyGrid grid, Direction current) {
+		int width = grid.getWidth();
+		int fruitX = fruit < 0 ? x : fruit % width;
+		int fruitY = fruit < 0 ? y : fruit / width;
+		Direction best = current;
+		int bestDistance = Integer.MAX_VALUE;
+		for (Direction direction : DIRECTIONS) {
+			if (direction == current.getOppositeDirection()) {
+				continue;
+			}
+			int nextX = x + direction.getDx();
+			int nextY = y + direction.getDy();
+			if (!grid.isFree(nextX, nextY)) {
+				continue;
+			}
+			int distance = Math.abs(fruitX - nextX) + Math.abs(fruitY - nextY);
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = direction;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,388 @@
+package snake.bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+import snake.engine.GameEngine;
+import snake.engine.GameState;
+import snake.interfaces.IBot;
+
+/**
+ * Bot searching ahead with Monte Carlo tree search. Every worker of a
+ * {@code ForkJoinPool} grows its own tree from a copy of the game until the
+ * time budget of a tick is spent, then visits of first moves are summed over
+ * all trees and the most visited move is taken. Trees share nothing, so count
+ * of playouts grows with count of workers.
+ *
+ * A tree covers the next few ticks, its node keeps a fork of
+ * {@code GameState} after its move. A playout plays on from a leaf with a quick
+ * policy, mostly going to the apple and avoiding crashes on the next tick, and
+ * is scored by survival and by how soon an apple is eaten. Every tree places
+ * new fruits with its own seed
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class MonteCarloBot implements IBot {
+	// =============== Constants ===============
+	/**
+	 * Default time budget of a tick in milliseconds
+	 */
+	public static final long DEFAULT_BUDGET_MILLIS = 10;
+	/**
+	 * Count of ticks covered by a tree. Fruits eaten deeper are replaced at random
+	 * places, so a deeper tree would fit its moves to one guess of them
+	 */
+	private static final int TREE_DEPTH = 2;
+	/**
+	 * Maximal count of ticks of a playout
+	 */
+	private static final int PLAYOUT_TICKS = 40;
+	/**
+	 * How much less an apple is worth for every tick it is eaten later
+	 */
+	private static final double DISCOUNT = 0.9;
+	/**
+	 * Weight of exploration in UCB1
+	 */
+	private static final double EXPLORATION = 0.5;
+	/**
+	 * Probability of a playout to go towards the apple instead of a random safe
+	 * direction
+	 */
+	private static final double GREEDY_PROBABILITY = 0.9;
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Pool growing trees
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Time budget of a tick in nanoseconds
+	 */
+	private final long budgetNanos;
+	/**
+	 * Count of all playouts
+	 */
+	private final LongAdder playoutCount = new LongAdder();
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a bot on the common pool with the default budget
+	 */
+	public MonteCarloBot() {
+		this(ForkJoinPool.commonPool(), DEFAULT_BUDGET_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param pool   - pool growing trees, a tree per worker
+	 * @param budget - time budget of a tick
+	 * @param unit   - unit of {@code budget}
+	 */
+	public MonteCarloBot(ForkJoinPool pool, long budget, TimeUnit unit) {
+		if (budget <= 0) {
+			throw new IllegalArgumentException("Budget must be positive: " + budget);
+		}
+		this.pool = pool;
+		budgetNanos = unit.toNanos(budget);
+	}
+
+	// =============== Get/Set ===============
+	public long getBudgetNanos() {
+		return budgetNanos;
+	}
+
+	/**
+	 * Returns count of playouts made since the bot is created
+	 *
+	 * @return count of playouts
+	 */
+	public long getPlayoutCount() {
+		return playoutCount.sum();
+	}
+
+	// =============== Methods ===============
+	@Override
+	public Direction nextDirection(GameEngine engine) {
+		GameState root = new GameState(engine);
+		if (!root.isRunning()) {
+			return engine.getCurrentDirection();
+		}
+		long deadline = System.nanoTime() + budgetNanos;
+		List<ForkJoinTask<long[]>> searches = new ArrayList<>();
+		for (int i = 0; i < pool.getParallelism(); i++) {
+			searches.add(pool.submit(new Search(root.fork(), ThreadLocalRandom.current().nextLong(), deadline)));
+		}
+		long[] visits = new long[DIRECTIONS.length];
+		for (ForkJoinTask<long[]> search : searches) {
+			long[] treeVisits = search.join();
+			for (int i = 0; i < visits.length; i++) {
+				visits[i] += treeVisits[i];
+			}
+		}
+		Direction best = engine.getCurrentDirection();
+		long bestVisits = 0;
+		for (Direction direction : DIRECTIONS) {
+			if (visits[direction.ordinal()] > bestVisits) {
+				bestVisits = visits[direction.ordinal()];
+				best = direction;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Node of a tree
+	 */
+	private static final class Node {
+		/**
+		 * State after the move to this node
+		 */
+		private final GameState state;
+		/**
+		 * Count of moves from the root
+		 */
+		private final int depth;
+		/**
+		 * Children by ordinals of directions of their moves
+		 */
+		private final Node[] children = new Node[DIRECTIONS.length];
+		/**
+		 * Bits of ordinals of directions which have no child yet, none for a leaf
+		 * at the depth of a tree
+		 */
+		private int untried;
+		/**
+		 * Count of playouts passed through the node
+		 */
+		private int visits;
+		/**
+		 * Sum of scores of playouts passed through the node
+		 */
+		private double score;
+
+		/**
+		 * @param state - state after the move to the node
+		 * @param depth - count of moves from the root
+		 */
+		private Node(GameState state, int depth) {
+			this.state = state;
+			this.depth = depth;
+			if (state.isRunning() && depth < TREE_DEPTH) {
+				for (Direction direction : DIRECTIONS) {
+					if (direction != state.getDirection().getOppositeDirection()) {
+						untried |= 1 << direction.ordinal();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Grows one tree until the deadline
+	 */
+	private final class Search extends RecursiveTask<long[]> {
+		private static final long serialVersionUID = 1L;
+		/**
+		 * State of the game now
+		 */
+		private final GameState root;
+		/**
+		 * Source of random moves and seeds of the tree
+		 */
+		private final SplittableRandom random;
+		/**
+		 * When to stop, by {@code System.nanoTime()}
+		 */
+		private final long deadline;
+		/**
+		 * Nodes from the root to the current one
+		 */
+		private final List<Node> path = new ArrayList<>();
+		/**
+		 * State reused by playouts
+		 */
+		private GameState playout;
+
+		private Search(GameState root, long seed, long deadline) {
+			this.root = root;
+			this.random = new SplittableRandom(seed);
+			this.deadline = deadline;
+		}
+
+		@Override
+		protected long[] compute() {
+			root.setSeed(random.nextLong());
+			playout = root.fork();
+			Node rootNode = new Node(root, 0);
+			long count = 0;
+			do {
+				iterate(rootNode);
+				count++;
+			} while (System.nanoTime() < deadline);
+			playoutCount.add(count);
+			long[] visits = new long[DIRECTIONS.length];
+			for (Direction direction : DIRECTIONS) {
+				Node child = rootNode.children[direction.ordinal()];
+				visits[direction.ordinal()] = child == null ? 0 : child.visits;
+			}
+			return visits;
+		}
+
+		/**
+		 * Selects a node by UCB1, adds a child to it, makes a playout from the child
+		 * and adds its score to every node on the way
+		 *
+		 * @param rootNode
+		 */
+		private void iterate(Node rootNode) {
+			path.clear();
+			Node node = rootNode;
+			path.add(node);
+			while (node.untried == 0 && node.depth < TREE_DEPTH && node.state.isRunning()) {
+				node = select(node);
+				path.add(node);
+			}
+			if (node.untried != 0) {
+				node = expand(node);
+				path.add(node);
+			}
+			double score = play(node.state);
+			for (Node passed : path) {
+				passed.visits++;
+				passed.score += score;
+			}
+		}
+
+		/**
+		 * Chooses a child with the best upper confidence bound
+		 *
+		 * @param node - node with all children added
+		 * @return the best child
+		 */
+		private Node select(Node node) {
+			double logVisits = Math.log(node.visits);
+			Node best = null;
+			double bestBound = Double.NEGATIVE_INFINITY;
+			for (Node child : node.children) {
+				if (child == null) {
+					continue;
+				}
+				double bound = child.score / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+				if (bound > bestBound) {
+					bestBound = bound;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Adds a child for a random untried direction
+		 *
+		 * @param node
+		 * @return the new child
+		 */
+		private Node expand(Node node) {
+			int ordinal;
+			do {
+				ordinal = random.nextInt(DIRECTIONS.length);
+			} while ((node.untried & 1 << ordinal) == 0);
+			node.untried &= ~(1 << ordinal);
+			GameState state = node.state.fork();
+			state.step(DIRECTIONS[ordinal]);
+			Node child = new Node(state, node.depth + 1);
+			node.children[ordinal] = child;
+			return child;
+		}
+
+		/**
+		 * Plays on from a state and scores the result: a snake which survives scores
+		 * from 0.5 to 1, a crashed one less than 0.25, the sooner the first apple is
+		 * eaten the more
+		 *
+		 * @param state
+		 * @return score from 0 to 1
+		 */
+		private double play(GameState state) {
+			playout.copyFrom(state);
+			double weight = Math.pow(DISCOUNT, state.getTickCount() - root.getTickCount());
+			// an apple eaten in the tree is counted as eaten at the leaf
+			double food = state.getCountOfEatenApples() > root.getCountOfEatenApples() ? weight : 0;
+			for (int i = 0; i < PLAYOUT_TICKS && playout.isRunning(); i++) {
+				int eaten = playout.getCountOfEatenApples();
+				playout.step(nextMove(playout));
+				weight *= DISCOUNT;
+				if (food == 0 && playout.getCountOfEatenApples() > eaten) {
+					food = weight;
+				}
+			}
+			if (food == 0 && playout.getAppleCell() >= 0) {
+				// a far apple is counted as reached straight after the playout
+				food = weight * Math.pow(DISCOUNT, distanceToApple(playout));
+			}
+			if (playout.isRunning() || playout.getFinishReason() == FinishReason.WIN) {
+				return 0.5 + 0.5 * food;
+			}
+			return 0.25 * food;
+		}
+
+		/**
+		 * Returns count of moves from the head to the apple on a free board
+		 *
+		 * @param state
+		 * @return distance to the apple
+		 */
+		private int distanceToApple(GameState state) {
+			int width = state.getWidth();
+			int head = state.head();
+			int apple = state.getAppleCell();
+			return Math.abs(apple % width - head % width) + Math.abs(apple / width - head / width);
+		}
+
+		/**
+		 * Chooses a move of a playout: towards the apple or a random one, which does
+		 * not crash on the next tick if possible
+		 *
+		 * @param state
+		 * @return direction of the next tick
+		 */
+		private Direction nextMove(GameState state) {
+			int width = state.getWidth();
+			int head = state.head();
+			int apple = state.getAppleCell();
+			boolean isGreedy = apple >= 0 && random.nextDouble() < GREEDY_PROBABILITY;
+			Direction best = state.getDirection();
+			int bestDistance = Integer.MAX_VALUE;
+			int safeCount = 0;
+			for (Direction direction : DIRECTIONS) {
+				if (direction == state.getDirection().getOppositeDirection() || !state.canMove(direction)) {
+					continue;
+				}
+				if (isGreedy) {
+					int distance = Math.abs(apple % width - head % width - direction.getDx())
+							+ Math.abs(apple / width - head / width - direction.getDy());
+					if (distance < bestDistance) {
+						bestDistance = distance;
+						best = direction;
+					}
+				} else if (random.nextInt(++safeCount) == 0) {
+					// every safe direction is taken with the same probability
+					best = direction;
+				}
+			}
+			return best;
+		}
+	}
+}
@@ -0,0 +1,857 @@
+package snake.bot;
+
+import java.util.Arrays;
+
+import snake.engine.Direction;
+import snake.engine.FruitKind;
+import snake.engine.GameEngine;
+import snake.engine.OccupancyGrid;
+import snake.engine.SnakeBody;
+import snake.interfaces.IBot;
+
+/**
+ * Autopilot finding a shortest path to an apple with A*. A path is taken only
+ * if the tail can be reached from the place where the snake eats the apple,
+ * otherwise the snake follows its tail until the apple gets safe. On a board
+ * with a Hamiltonian cycle the snake lays its body along the cycle and then
+ * moves only along it, cutting it short towards the apple where this is safe,
+ * so it fills the whole board. A board with odd width and height has no
+ * Hamiltonian cycle, there the cycle leaves one cell out; when the apple is on
+ * that cell the cycle is changed to pass it and leave out a neighbour cell
+ * instead. A found path is followed while it stays free, so most ticks take no
+ * search. If no apple is eaten for {@code STALL_FACTOR} times the count of cells
+ * of a board, e.g. the snake chases its tail around an apple it can not reach
+ * safely, the snake goes to the apple by a shortest path whatever it risks, so
+ * a turn never runs forever.
+ *
+ * All search state lives in primitive arrays reused by every decision and
+ * marked with stamps instead of being cleared, so a decision allocates nothing.
+ * A bot is used by one thread and may play boards of any size
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class PathBot implements IBot {
+	// =============== Constants ===============
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Free cells besides the growth which let the snake wait for its tail
+	 */
+	private static final int WAIT_AREA = 50;
+	/**
+	 * Free cells kept between the head and the tail when the cycle is cut short
+	 */
+	private static final int CYCLE_MARGIN = 4;
+	/**
+	 * Ticks without an eaten apple, in counts of cells of a board, after which
+	 * the snake stops playing safe
+	 */
+	private static final int STALL_FACTOR = 2;
+
+	// =============== Fields ===============
+	/**
+	 * Width of a board of the buffers
+	 */
+	private int width;
+	/**
+	 * Height of a board of the buffers
+	 */
+	private int height;
+	/**
+	 * Count of cells of a board of the buffers
+	 */
+	private int size;
+	/**
+	 * Stamp of the current search, a cell is visited if its {@code visited}
+	 * equals it
+	 */
+	private int stamp;
+	/**
+	 * Search stamps of cells
+	 */
+	private int[] visited = new int[0];
+	/**
+	 * Stamp of the current virtual body
+	 */
+	private int blockStamp;
+	/**
+	 * Cells of a virtual body are marked with {@code blockStamp}
+	 */
+	private int[] blocked = new int[0];
+	/**
+	 * Previous cell on a found path
+	 */
+	private int[] parent = new int[0];
+	/**
+	 * Distance from the start of a search
+	 */
+	private int[] distance = new int[0];
+	/**
+	 * Queue of a breadth-first search
+	 */
+	private int[] queue = new int[0];
+	/**
+	 * Cells of the open set of A*, a binary heap
+	 */
+	private int[] heapCells = new int[16];
+	/**
+	 * Keys of {@code heapCells}: estimated length of a path, then distance from
+	 * the start reversed
+	 */
+	private long[] heapKeys = new long[16];
+	/**
+	 * Count of cells in the heap
+	 */
+	private int heapSize;
+	/**
+	 * Cells of the followed path, without the head
+	 */
+	private int[] path = new int[0];
+	/**
+	 * Length of the followed path
+	 */
+	private int pathLength;
+	/**
+	 * Index of the next cell of the followed path
+	 */
+	private int pathIndex;
+	/**
+	 * Apple the followed path leads to, -1 if no path is followed
+	 */
+	private int plannedApple = -1;
+	/**
+	 * Cell behind the head, the snake can not turn back on it even if it is free
+	 */
+	private int back;
+	/**
+	 * Position of every cell on the Hamiltonian cycle, null if a board has no
+	 * cycle
+	 */
+	private int[] cyclePositions;
+	/**
+	 * Cells of the Hamiltonian cycle in order
+	 */
+	private int[] cycleCells;
+	/**
+	 * Count of cells of the cycle
+	 */
+	private int cycleLength;
+	/**
+	 * Cell left out of the cycle, -1 if the cycle passes every cell
+	 */
+	private int hole = -1;
+	/**
+	 * Count of last moves made along the cycle one after another
+	 */
+	private int cycleRun;
+	/**
+	 * Flag showing that the body lies along the cycle in order, so the snake
+	 * moves only along it
+	 */
+	private boolean isOnCycle;
+	/**
+	 * Tick of the last decision
+	 */
+	private long lastTick;
+	/**
+	 * Count of eaten apples at the last decision
+	 */
+	private int lastEatenCount;
+	/**
+	 * Tick when an apple was eaten or a turn started last
+	 */
+	private long progressTick;
+
+	// =============== Methods ===============
+	@Override
+	public Direction nextDirection(GameEngine engine) {
+		OccupancyGrid grid = engine.getOccupancy();
+		prepare(grid.getWidth(), grid.getHeight());
+		SnakeBody body = engine.getBody();
+		int head = body.head();
+		int apple = engine.getAppleCell();
+		back = neighbour(head, engine.getCurrentDirection().getOppositeDirection());
+		if (apple >= 0 && engine.getPendingGrowth() > 0 && grid.getFreeCount() == 1 && isNeighbour(head, apple)) {
+			// the last free cell is filled, the turn is won
+			return toDirection(head, apple);
+		}
+		if (isStalled(engine)) {
+			isOnCycle = false;
+			cycleRun = 0;
+			plannedApple = -1;
+			if (apple >= 0 && findPath(engine, head, apple)) {
+				return toDirection(head, path[0]);
+			}
+		}
+		int next = -1;
+		int successor = -1;
+		// the head may be on the cell left out of the cycle
+		boolean hasCycle = cyclePositions != null && cyclePositions[head] >= 0;
+		if (!hasCycle) {
+			isOnCycle = false;
+			cycleRun = 0;
+		} else if (isOnCycle) {
+			next = nextOnCycle(engine, apple);
+			isOnCycle = next >= 0;
+		} else {
+			// lays the body along the cycle while it is safe
+			successor = cycleCells[(cyclePositions[head] + 1) % cycleLength];
+			if (isPassable(engine, successor) && isSafeMove(engine, successor)) {
+				next = successor;
+			}
+		}
+		if (next >= 0) {
+			plannedApple = -1;
+		}
+		if (next < 0) {
+			next = nextOnPath(engine, apple);
+		}
+		if (next < 0) {
+			next = followTail(engine);
+		}
+		if (next < 0) {
+			next = largestArea(engine);
+		}
+		if (hasCycle && !isOnCycle) {
+			cycleRun = next == successor ? cycleRun + 1 : 0;
+			// the body is made of the last moves, one more if it grows
+			isOnCycle = cycleRun > body.size();
+		}
+		return next < 0 ? engine.getCurrentDirection() : toDirection(head, next);
+	}
+
+	/**
+	 * Checks if no apple has been eaten for too long in the current turn
+	 *
+	 * @param engine
+	 * @return true if the snake should stop playing safe
+	 */
+	private boolean isStalled(GameEngine engine) {
+		long tick = engine.getTickCount();
+		int eatenCount = engine.getCountOfEatenApples();
+		if (tick < lastTick || eatenCount != lastEatenCount) {
+			// a new turn or an eaten apple
+			progressTick = tick;
+		}
+		lastTick = tick;
+		lastEatenCount = eatenCount;
+		return tick - progressTick > (long) STALL_FACTOR * size;
+	}
+
+	/**
+	 * Reallocates buffers and the cycle if a board has another size
+	 *
+	 * @param width
+	 * @param height
+	 */
+	private void prepare(int width, int height) {
+		if (this.width == width && this.height == height) {
+			return;
+		}
+		this.width = width;
+		this.height = height;
+		size = width * height;
+		visited = new int[size];
+		blocked = new int[size];
+		parent = new int[size];
+		distance = new int[size];
+		queue = new int[size];
+		path = new int[size];
+		stamp = 0;
+		blockStamp = 0;
+		plannedApple = -1;
+		buildCycle(width, height);
+	}
+
+	/**
+	 * Returns the next cell of the followed path, looks for a new path if the
+	 * apple has moved or the path is blocked
+	 *
+	 * @param engine
+	 * @param apple  - cell of the apple
+	 * @return next cell, -1 if there is no safe path to the apple
+	 */
+	private int nextOnPath(GameEngine engine, int apple) {
+		SnakeBody body = engine.getBody();
+		if (apple < 0) {
+			return -1;
+		}
+		if (plannedApple == apple && pathIndex < pathLength && body.head() == path[pathIndex - 1]
+				&& isPassable(engine, path[pathIndex])) {
+			return path[pathIndex++];
+		}
+		plannedApple = -1;
+		if (!findPath(engine, body.head(), apple) || !isSafeAfterPath(engine)) {
+			return -1;
+		}
+		plannedApple = apple;
+		pathIndex = 1;
+		return path[0];
+	}
+
+	/**
+	 * Checks if the head can move on a cell on the next tick
+	 *
+	 * @param engine
+	 * @param cell
+	 * @return true if the cell is free or is the tail leaving it, and is not
+	 *         behind the head
+	 */
+	private boolean isPassable(GameEngine engine, int cell) {
+		return cell != back && (!engine.getOccupancy().isOccupied(cell)
+				|| cell == engine.getBody().tail() && engine.getPendingGrowth() == 0);
+	}
+
+	/**
+	 * Finds a shortest path with A*, the distance on a board is the estimate.
+	 * The found path is put to {@code path} without the start
+	 *
+	 * @param engine
+	 * @param start  - cell of the head
+	 * @param target - cell of the apple
+	 * @return true if a path is found
+	 */
+	private boolean findPath(GameEngine engine, int start, int target) {
+		OccupancyGrid grid = engine.getOccupancy();
+		int tail = engine.getBody().tail();
+		boolean isTailLeaving = engine.getPendingGrowth() == 0;
+		int targetX = target % width;
+		int targetY = target / width;
+		nextStamp();
+		heapSize = 0;
+		visited[start] = stamp;
+		distance[start] = 0;
+		push(start, estimate(start, targetX, targetY), 0);
+		while (heapSize > 0) {
+			long key = heapKeys[0];
+			int cell = pop();
+			int cellDistance = distance[cell];
+			if ((int) (key >>> 32) != cellDistance + estimate(cell, targetX, targetY)) {
+				// a shorter way to the cell was found after it was pushed
+				continue;
+			}
+			if (cell == target) {
+				storePath(target);
+				return true;
+			}
+			int x = cell % width;
+			int y = cell / width;
+			for (Direction direction : DIRECTIONS) {
+				int nextX = x + direction.getDx();
+				int nextY = y + direction.getDy();
+				if (!grid.isInside(nextX, nextY)) {
+					continue;
+				}
+				int next = nextY * width + nextX;
+				if (grid.isOccupied(next) && !(next == tail && isTailLeaving) || cell == start && next == back) {
+					continue;
+				}
+				int nextDistance = cellDistance + 1;
+				if (visited[next] == stamp && distance[next] <= nextDistance) {
+					continue;
+				}
+				visited[next] = stamp;
+				distance[next] = nextDistance;
+				parent[next] = cell;
+				push(next, nextDistance + estimate(next, targetX, targetY), nextDistance);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns distance on a board from a cell to a target
+	 *
+	 * @param cell
+	 * @param targetX
+	 * @param targetY
+	 * @return count of moves without obstacles
+	 */
+	private int estimate(int cell, int targetX, int targetY) {
+		return Math.abs(cell % width - targetX) + Math.abs(cell / width - targetY);
+	}
+
+	/**
+	 * Puts the path found by a search to {@code path}
+	 *
+	 * @param target
+	 */
+	private void storePath(int target) {
+		pathLength = distance[target];
+		int cell = target;
+		for (int i = pathLength - 1; i >= 0; i--) {
+			path[i] = cell;
+			cell = parent[cell];
+		}
+	}
+
+	/**
+	 * Checks that the tail can be reached after the snake goes along
+	 * {@code path} and eats the apple. The body after the path is made of the
+	 * end of the path and the front of the current body
+	 *
+	 * @param engine
+	 * @return true if the path is safe
+	 */
+	private boolean isSafeAfterPath(GameEngine engine) {
+		SnakeBody body = engine.getBody();
+		int length = body.size();
+		int growth = engine.getPendingGrowth();
+		// cells of the current body, the tail first, then cells of the path
+		int total = length + pathLength;
+		int removed = Math.max(0, pathLength - growth);
+		nextBlockStamp();
+		for (int i = removed + 1; i < total - 1; i++) {
+			blocked[i < length ? body.get(length - 1 - i) : path[i - length]] = blockStamp;
+		}
+		int virtualTail = removed < length ? body.get(length - 1 - removed) : path[removed - length];
+		if (virtualTail == path[pathLength - 1]) {
+			// a snake of one cell can go anywhere
+			return true;
+		}
+		int growthLeft = Math.max(0, growth - pathLength) + FruitKind.APPLE.getValue();
+		return distanceToTail(path[pathLength - 1], virtualTail, growthLeft) > 0;
+	}
+
+	/**
+	 * Chooses a neighbour cell of the head from which the tail can be reached,
+	 * the farthest one from the tail
+	 *
+	 * @param engine
+	 * @return next cell, -1 if the tail can not be reached
+	 */
+	private int followTail(GameEngine engine) {
+		int head = engine.getBody().head();
+		int best = -1;
+		int bestDistance = 0;
+		for (Direction direction : DIRECTIONS) {
+			int next = neighbour(head, direction);
+			if (next < 0 || !isPassable(engine, next)) {
+				continue;
+			}
+			int tailDistance = distanceToTailAfterMove(engine, next);
+			if (tailDistance > bestDistance) {
+				bestDistance = tailDistance;
+				best = next;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Checks that the tail can be reached after the head moves on a cell
+	 *
+	 * @param engine
+	 * @param next   - passable neighbour cell of the head
+	 * @return true if the move is safe
+	 */
+	private boolean isSafeMove(GameEngine engine, int next) {
+		return distanceToTailAfterMove(engine, next) > 0;
+	}
+
+	/**
+	 * Finds the length of a shortest path to the tail after the head moves on a
+	 * cell
+	 *
+	 * @param engine
+	 * @param next   - passable neighbour cell of the head
+	 * @return count of moves, 0 if the tail can not be reached safely
+	 */
+	private int distanceToTailAfterMove(GameEngine engine, int next) {
+		SnakeBody body = engine.getBody();
+		int length = body.size();
+		// the body after one move, the tail stays if the snake grows
+		int removed = engine.getPendingGrowth() > 0 ? 0 : 1;
+		if (removed == length) {
+			// a snake of one cell can go anywhere
+			return size;
+		}
+		nextBlockStamp();
+		for (int i = removed + 1; i < length; i++) {
+			blocked[body.get(length - 1 - i)] = blockStamp;
+		}
+		return distanceToTail(next, body.get(length - 1 - removed), Math.max(0, engine.getPendingGrowth() - 1));
+	}
+
+	/**
+	 * Chooses a passable neighbour cell of the head with the most cells
+	 * reachable from it, looking no further than the length of the snake
+	 *
+	 * @param engine
+	 * @return next cell, -1 if every neighbour is occupied
+	 */
+	private int largestArea(GameEngine engine) {
+		int head = engine.getBody().head();
+		int limit = engine.getBody().size() + 1;
+		int best = -1;
+		int bestArea = -1;
+		for (Direction direction : DIRECTIONS) {
+			int next = neighbour(head, direction);
+			if (next < 0 || !isPassable(engine, next)) {
+				continue;
+			}
+			int area = countArea(engine.getOccupancy(), next, limit);
+			if (area > bestArea) {
+				bestArea = area;
+				best = next;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the length of a shortest path from a cell to a tail going round
+	 * cells marked with {@code blockStamp}. A tail which stays for a few ticks is
+	 * safe if it is further than that or there are enough cells to wait in
+	 *
+	 * @param start      - cell of a head
+	 * @param tail       - cell of a tail
+	 * @param growthLeft - for how many ticks the tail stays
+	 * @return count of moves, 0 if the tail can not be reached safely
+	 */
+	private int distanceToTail(int start, int tail, int growthLeft) {
+		if (start == tail) {
+			return 0;
+		}
+		nextStamp();
+		int first = 0;
+		int last = 0;
+		int tailDistance = 0;
+		queue[last++] = start;
+		visited[start] = stamp;
+		distance[start] = 0;
+		while (first < last) {
+			int cell = queue[first++];
+			for (Direction direction : DIRECTIONS) {
+				int next = neighbour(cell, direction);
+				if (next < 0 || visited[next] == stamp) {
+					continue;
+				}
+				if (next == tail) {
+					visited[next] = stamp;
+					tailDistance = distance[cell] + 1;
+				} else if (blocked[next] != blockStamp) {
+					visited[next] = stamp;
+					distance[next] = distance[cell] + 1;
+					queue[last++] = next;
+				}
+				if (tailDistance > 0 && (tailDistance > growthLeft || last > growthLeft + WAIT_AREA)) {
+					return tailDistance;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Counts free cells reachable from a cell
+	 *
+	 * @param grid  - cells occupied by the snake
+	 * @param start
+	 * @param limit - counting stops when it is reached
+	 * @return count of reachable cells, at most {@code limit}
+	 */
+	private int countArea(OccupancyGrid grid, int start, int limit) {
+		nextStamp();
+		int first = 0;
+		int last = 0;
+		queue[last++] = start;
+		visited[start] = stamp;
+		while (first < last && last < limit) {
+			int cell = queue[first++];
+			for (Direction direction : DIRECTIONS) {
+				int next = neighbour(cell, direction);
+				if (next < 0 || visited[next] == stamp || grid.isOccupied(next)) {
+					continue;
+				}
+				visited[next] = stamp;
+				queue[last++] = next;
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * Chooses the next cell on the Hamiltonian cycle, or a cell further on the
+	 * cycle if the free part between the head and the tail stays long enough.
+	 * The apple is not skipped. An apple on the cell left out of the cycle is
+	 * taken by a detour when the head is next to it and the two next cells of
+	 * the cycle get free
+	 *
+	 * @param engine
+	 * @param apple  - cell of the apple
+	 * @return next cell, -1 if the next cell on the cycle is not passable
+	 */
+	private int nextOnCycle(GameEngine engine, int apple) {
+		SnakeBody body = engine.getBody();
+		OccupancyGrid grid = engine.getOccupancy();
+		int head = body.head();
+		int headPosition = cyclePositions[head];
+		int tailGap = cycleDistance(headPosition, cyclePositions[body.tail()]);
+		int appleGap;
+		if (apple < 0) {
+			appleGap = cycleLength;
+		} else if (apple != hole) {
+			appleGap = cycleDistance(headPosition, cyclePositions[apple]);
+		} else {
+			int detourStart = findDetour();
+			int detourEnd = cycleCells[(headPosition + 2) % cycleLength];
+			if (head == detourStart && !grid.isOccupied(cycleCells[(headPosition + 1) % cycleLength])
+					&& isPassable(engine, detourEnd)) {
+				takeDetour(headPosition);
+				return apple;
+			}
+			// the detour must not be skipped
+			appleGap = detourStart < 0 ? cycleLength : cycleDistance(headPosition, cyclePositions[detourStart]);
+		}
+		int margin = engine.getPendingGrowth() + FruitKind.APPLE.getValue() + CYCLE_MARGIN;
+		int successor = cycleCells[(headPosition + 1) % cycleLength];
+		int best = isPassable(engine, successor) ? successor : -1;
+		int bestGap = 1;
+		for (Direction direction : DIRECTIONS) {
+			int next = neighbour(head, direction);
+			if (next < 0 || next == successor || next == hole || !isPassable(engine, next) || next == body.tail()) {
+				continue;
+			}
+			int gap = cycleDistance(headPosition, cyclePositions[next]);
+			if (gap > bestGap && gap <= appleGap && gap < tailGap - margin) {
+				best = next;
+				bestGap = gap;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns count of moves along the cycle from one position to another
+	 *
+	 * @param from
+	 * @param to
+	 * @return distance along the cycle
+	 */
+	private int cycleDistance(int from, int to) {
+		int gap = to - from;
+		return gap < 0 ? gap + cycleLength : gap;
+	}
+
+	/**
+	 * Finds a cell of the cycle from which the cycle can go through the cell
+	 * left out and skip the next cell: both are neighbours of the left out cell
+	 * and of the skipped one. The cell which has been left out before is always
+	 * such a skipped cell, so one is found
+	 *
+	 * @return the cell where the detour starts, -1 if there is none
+	 */
+	private int findDetour() {
+		for (Direction direction : DIRECTIONS) {
+			int from = neighbour(hole, direction);
+			if (from < 0 || cyclePositions[from] < 0) {
+				continue;
+			}
+			if (isNeighbour(hole, cycleCells[(cyclePositions[from] + 2) % cycleLength])) {
+				return from;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks if two cells are neighbours
+	 *
+	 * @param cell
+	 * @param other
+	 * @return true if {@code other} is next to {@code cell}
+	 */
+	private boolean isNeighbour(int cell, int other) {
+		for (Direction direction : DIRECTIONS) {
+			if (neighbour(cell, direction) == other) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Puts the cell left out into the cycle instead of the cell after
+	 * {@code position}, which is left out then
+	 *
+	 * @param position - position of the cell where the detour starts
+	 */
+	private void takeDetour(int position) {
+		int skippedPosition = (position + 1) % cycleLength;
+		int skipped = cycleCells[skippedPosition];
+		cycleCells[skippedPosition] = hole;
+		cyclePositions[hole] = skippedPosition;
+		cyclePositions[skipped] = -1;
+		hole = skipped;
+	}
+
+	/**
+	 * Builds a Hamiltonian cycle: rows are passed in a zigzag leaving the first
+	 * column free, the way back goes along the first column. A board with odd
+	 * height is passed by columns. A board with odd width and height has no
+	 * cycle, there the last row is reached by dips of the row above in pairs of
+	 * columns, so only the first cell of the last row is left out
+	 *
+	 * @param width
+	 * @param height
+	 */
+	private void buildCycle(int width, int height) {
+		cyclePositions = null;
+		cycleCells = null;
+		cycleLength = 0;
+		hole = -1;
+		if (width < 2 || height < 2) {
+			return;
+		}
+		boolean isOdd = width % 2 != 0 && height % 2 != 0;
+		boolean byRows = height % 2 == 0 || isOdd;
+		int rows = byRows ? (isOdd ? height - 1 : height) : width;
+		int columns = byRows ? width : height;
+		int[] cells = new int[size];
+		int position = 0;
+		for (int row = 0; row < rows; row++) {
+			if (isOdd && row == rows - 1) {
+				// the row is passed from the last column to the second one
+				for (int column = columns - 1; column >= 2; column -= 2) {
+					cells[position++] = row * width + column;
+					cells[position++] = (row + 1) * width + column;
+					cells[position++] = (row + 1) * width + column - 1;
+					cells[position++] = row * width + column - 1;
+				}
+				continue;
+			}
+			// the first row is passed whole, others without the first column
+			for (int i = row == 0 ? 0 : 1; i < columns; i++) {
+				int column = row % 2 == 0 ? i : columns - i;
+				cells[position++] = byRows ? row * width + column : column * width + row;
+			}
+		}
+		for (int row = rows - 1; row >= 1; row--) {
+			cells[position++] = byRows ? row * width : row;
+		}
+		int[] positions = new int[size];
+		Arrays.fill(positions, -1);
+		for (int i = 0; i < position; i++) {
+			positions[cells[i]] = i;
+		}
+		cycleCells = cells;
+		cyclePositions = positions;
+		cycleLength = position;
+		hole = isOdd ? (height - 1) * width : -1;
+	}
+
+	/**
+	 * Returns a neighbour cell
+	 *
+	 * @param cell
+	 * @param direction
+	 * @return neighbour cell, -1 if it is out of borders
+	 */
+	private int neighbour(int cell, Direction direction) {
+		int x = cell % width + direction.getDx();
+		int y = cell / width + direction.getDy();
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return -1;
+		}
+		return y * width + x;
+	}
+
+	/**
+	 * Returns direction from a cell to its neighbour
+	 *
+	 * @param from
+	 * @param to
+	 * @return direction of the move
+	 */
+	private Direction toDirection(int from, int to) {
+		for (Direction direction : DIRECTIONS) {
+			if (neighbour(from, direction) == to) {
+				return direction;
+			}
+		}
+		throw new IllegalArgumentException("Cells are not neighbours: " + from + ", " + to);
+	}
+
+	/**
+	 * Starts a new search, clears stamps when they wrap around
+	 */
+	private void nextStamp() {
+		if (++stamp == 0) {
+			Arrays.fill(visited, 0);
+			stamp = 1;
+		}
+	}
+
+	/**
+	 * Starts a new virtual body, clears stamps when they wrap around
+	 */
+	private void nextBlockStamp() {
+		if (++blockStamp == 0) {
+			Arrays.fill(blocked, 0);
+			blockStamp = 1;
+		}
+	}
+
+	/**
+	 * Adds a cell to the heap
+	 *
+	 * @param cell
+	 * @param estimate     - estimated length of a path through the cell
+	 * @param cellDistance - distance from the start
+	 */
+	private void push(int cell, int estimate, int cellDistance) {
+		if (heapSize == heapCells.length) {
+			heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+			heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+		}
+		// equal estimates: the cell further from the start goes first
+		long key = (long) estimate << 32 | (Integer.MAX_VALUE - cellDistance);
+		int i = heapSize++;
+		while (i > 0) {
+			int up = (i - 1) >>> 1;
+			if (heapKeys[up] <= key) {
+				break;
+			}
+			heapCells[i] = heapCells[up];
+			heapKeys[i] = heapKeys[up];
+			i = up;
+		}
+		heapCells[i] = cell;
+		heapKeys[i] = key;
+	}
+
+	/**
+	 * Removes the cell with the smallest key from the heap
+	 *
+	 * @return the removed cell
+	 */
+	private int pop() {
+		int top = heapCells[0];
+		heapSize--;
+		int cell = heapCells[heapSize];
+		long key = heapKeys[heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+				child++;
+			}
+			if (heapKeys[child] >= key) {
+				break;
+			}
+			heapCells[i] = heapCells[child];
+			heapKeys[i] = heapKeys[child];
+			i = child;
+		}
+		heapCells[i] = cell;
+		heapKeys[i] = key;
+		return top;
+	}
+}
@@ -0,0 +1,418 @@
+package snake.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless game of many snakes on one board. All snakes move at once: a tick
+ * first finds where every head goes, then kills snakes which crash, then moves
+ * the rest. Every cell keeps the snake owning it, and the cell a head goes to is
+ * claimed with the number of the tick, so a tick costs the same for every
+ * snake whatever the count and the length of snakes are
+ *
+ * <ul>
+ * <li>a head out of borders - {@code BORDER}</li>
+ * <li>a head on a cell of its own body - {@code SELF}</li>
+ * <li>a head on a cell of another snake - {@code SNAKE}</li>
+ * <li>heads going to the same cell or swapping cells - all of them
+ * {@code HEAD_ON}, so a contested fruit is eaten by nobody</li>
+ * </ul>
+ * A tail leaving its cell on the same tick does not count. Bodies of dead
+ * snakes are removed at once
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ArenaEngine {
+	// =============== Constants ===============
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * Cells occupied by any snake
+	 */
+	private final OccupancyGrid occupancy;
+	/**
+	 * Id of the snake on every cell, -1 for a free cell
+	 */
+	private final int[] owners;
+	/**
+	 * Number of the tick when a head has claimed a cell
+	 */
+	private final int[] claimedAt;
+	/**
+	 * Id of the snake which has claimed a cell, valid if {@code claimedAt}
+	 * matches the tick
+	 */
+	private final int[] claimants;
+	/**
+	 * Flags of cells with a fruit
+	 */
+	private final boolean[] hasFruit;
+	/**
+	 * Cells of fruits, -1 if a fruit is not placed
+	 */
+	private final int[] fruitCells;
+	/**
+	 * All snakes by their ids
+	 */
+	private final List<ArenaSnake> snakes = new ArrayList<>();
+	/**
+	 * Snakes which are alive
+	 */
+	private final List<ArenaSnake> alive = new ArrayList<>();
+	/**
+	 * Source of random positions
+	 */
+	private final Random random = new Random();
+
+	// =============== Fields ===============
+	/**
+	 * Count of ticks since the start
+	 */
+	private long tickCount;
+	/**
+	 * Count of fruits on a board
+	 */
+	private int placedFruitCount;
+
+	// =============== Constructors ===============
+	/**
+	 * @param width      - width of a board in cells
+	 * @param height     - height of a board in cells
+	 * @param fruitCount - how many fruits are on a board at once
+	 */
+	public ArenaEngine(int width, int height, int fruitCount) {
+		if (width < 2 || height < 2) {
+			throw new IllegalArgumentException("Board is too small: " + width + "x" + height);
+		}
+		if ((long) width * height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Board is too big: " + width + "x" + height);
+		}
+		if (fruitCount < 0) {
+			throw new IllegalArgumentException("Count of fruits is negative: " + fruitCount);
+		}
+		this.width = width;
+		this.height = height;
+		occupancy = new OccupancyGrid(width, height);
+		owners = new int[width * height];
+		claimedAt = new int[width * height];
+		claimants = new int[width * height];
+		hasFruit = new boolean[width * height];
+		fruitCells = new int[fruitCount];
+		Arrays.fill(owners, -1);
+		Arrays.fill(fruitCells, -1);
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Makes positions of snakes and fruits repeat for the same seed and the same
+	 * moves, should be called before adding snakes
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Returns all snakes, dead ones included
+	 *
+	 * @return snakes by their ids
+	 */
+	public List<ArenaSnake> getSnakes() {
+		return Collections.unmodifiableList(snakes);
+	}
+
+	public int getAliveCount() {
+		return alive.size();
+	}
+
+	/**
+	 * Checks if the game is going on
+	 *
+	 * @return true while at least one snake is alive
+	 */
+	public boolean isRunning() {
+		return !alive.isEmpty();
+	}
+
+	/**
+	 * Returns the snake on a cell
+	 *
+	 * @param cell
+	 * @return id of the snake, -1 if the cell is free
+	 */
+	public int getOwner(int cell) {
+		return owners[cell];
+	}
+
+	/**
+	 * Returns cells occupied by snakes. The grid must not be changed from outside
+	 *
+	 * @return cells occupied by snakes
+	 */
+	public OccupancyGrid getOccupancy() {
+		return occupancy;
+	}
+
+	/**
+	 * Checks if a snake can move on (x,y)
+	 *
+	 * @param x
+	 * @param y
+	 * @return true if (x,y) is within borders and no snake is on it
+	 */
+	public boolean isFree(int x, int y) {
+		return occupancy.isFree(x, y);
+	}
+
+	public int getFruitCount() {
+		return fruitCells.length;
+	}
+
+	/**
+	 * Returns cell of a fruit
+	 *
+	 * @param i - from 0 to {@code getFruitCount() - 1}
+	 * @return cell of the fruit, -1 if there is no free cell for it
+	 */
+	public int getFruitCell(int i) {
+		return fruitCells[i];
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds a snake of one cell on a random free cell and places missing fruits
+	 *
+	 * @param direction - direction of the first tick
+	 * @return the new snake, null if there is no free cell
+	 */
+	public ArenaSnake addSnake(Direction direction) {
+		int cell = randomFreeCell();
+		return cell < 0 ? null : addSnake(cell, direction);
+	}
+
+	/**
+	 * Adds a snake of one cell and places missing fruits
+	 *
+	 * @param cell      - free cell of the head
+	 * @param direction - direction of the first tick
+	 * @return the new snake
+	 */
+	public ArenaSnake addSnake(int cell, Direction direction) {
+		if (occupancy.isOccupied(cell)) {
+			throw new IllegalArgumentException("Cell is occupied: " + cell);
+		}
+		if (hasFruit[cell]) {
+			hasFruit[cell] = false;
+			removeFruit(cell);
+		}
+		ArenaSnake snake = new ArenaSnake(snakes.size(), occupancy, direction);
+		snake.body.pushHead(cell);
+		owners[cell] = snake.getId();
+		snakes.add(snake);
+		alive.add(snake);
+		plantFruits();
+		return snake;
+	}
+
+	/**
+	 * Moves all alive snakes on one cell
+	 *
+	 * @return true if a snake is still alive after the tick
+	 */
+	public boolean tick() {
+		if (alive.isEmpty()) {
+			return false;
+		}
+		tickCount++;
+		int stamp = (int) tickCount;
+		if (stamp == 0) {
+			// the stamp has wrapped around, old claims must not match new ticks
+			Arrays.fill(claimedAt, 0);
+			stamp = 1;
+			tickCount++;
+		}
+		claimCells(stamp);
+		findCrashes();
+		removeDead();
+		moveAlive();
+		return !alive.isEmpty();
+	}
+
+	/**
+	 * Finds where every head goes. Heads going to the same cell are killed
+	 *
+	 * @param stamp - number of the tick
+	 */
+	private void claimCells(int stamp) {
+		for (int i = 0; i < alive.size(); i++) {
+			ArenaSnake snake = alive.get(i);
+			int head = snake.body.head();
+			int x = head % width + snake.direction.getDx();
+			int y = head / width + snake.direction.getDy();
+			if (!occupancy.isInside(x, y)) {
+				snake.next = -1;
+				snake.deathReason = FinishReason.BORDER;
+				continue;
+			}
+			int next = y * width + x;
+			snake.next = next;
+			if (claimedAt[next] == stamp) {
+				snake.deathReason = FinishReason.HEAD_ON;
+				snakes.get(claimants[next]).deathReason = FinishReason.HEAD_ON;
+			} else {
+				claimedAt[next] = stamp;
+				claimants[next] = snake.getId();
+			}
+		}
+	}
+
+	/**
+	 * Kills snakes whose heads go on a body. Bodies are checked as they were
+	 * before the tick, tails leaving their cells are not counted
+	 */
+	private void findCrashes() {
+		for (int i = 0; i < alive.size(); i++) {
+			ArenaSnake snake = alive.get(i);
+			if (snake.next < 0) {
+				continue;
+			}
+			int owner = owners[snake.next];
+			if (owner < 0) {
+				continue;
+			}
+			ArenaSnake other = snakes.get(owner);
+			if (other != snake && snake.next == other.body.head() && other.next == snake.body.head()) {
+				// heads are swapping cells
+				snake.deathReason = FinishReason.HEAD_ON;
+				other.deathReason = FinishReason.HEAD_ON;
+			} else if (snake.next != other.body.tail() || other.pendingGrowth > 0) {
+				if (snake.deathReason == null) {
+					snake.deathReason = other == snake ? FinishReason.SELF : FinishReason.SNAKE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes bodies of killed snakes from the board
+	 */
+	private void removeDead() {
+		int kept = 0;
+		for (int i = 0; i < alive.size(); i++) {
+			ArenaSnake snake = alive.get(i);
+			if (snake.isAlive()) {
+				alive.set(kept++, snake);
+				continue;
+			}
+			for (int j = 0; j < snake.body.size(); j++) {
+				owners[snake.body.get(j)] = -1;
+			}
+			snake.body.clear();
+			snake.pendingGrowth = 0;
+		}
+		alive.subList(kept, alive.size()).clear();
+	}
+
+	/**
+	 * Moves alive snakes: all tails first, so a head may go on a cell left by a
+	 * tail on the same tick, then all heads
+	 */
+	private void moveAlive() {
+		for (int i = 0; i < alive.size(); i++) {
+			ArenaSnake snake = alive.get(i);
+			if (snake.pendingGrowth > 0) {
+				snake.pendingGrowth--;
+			} else {
+				owners[snake.body.popTail()] = -1;
+			}
+		}
+		boolean isFruitEaten = false;
+		for (int i = 0; i < alive.size(); i++) {
+			ArenaSnake snake = alive.get(i);
+			int next = snake.next;
+			snake.body.pushHead(next);
+			owners[next] = snake.getId();
+			if (hasFruit[next]) {
+				hasFruit[next] = false;
+				removeFruit(next);
+				snake.pendingGrowth += FruitKind.APPLE.getValue();
+				snake.countOfEatenFruits++;
+				isFruitEaten = true;
+			}
+		}
+		if (isFruitEaten) {
+			plantFruits();
+		}
+	}
+
+	/**
+	 * Marks an eaten fruit as not placed
+	 *
+	 * @param cell - cell of the fruit
+	 */
+	private void removeFruit(int cell) {
+		for (int i = 0; i < fruitCells.length; i++) {
+			if (fruitCells[i] == cell) {
+				fruitCells[i] = -1;
+				placedFruitCount--;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Places fruits which are not on a board
+	 */
+	private void plantFruits() {
+		for (int i = 0; i < fruitCells.length; i++) {
+			if (fruitCells[i] < 0) {
+				int cell = randomFreeCell();
+				if (cell < 0) {
+					return;
+				}
+				fruitCells[i] = cell;
+				hasFruit[cell] = true;
+				placedFruitCount++;
+			}
+		}
+	}
+
+	/**
+	 * Returns a random cell without a snake and a fruit
+	 *
+	 * @return a random free cell, -1 if there is no free cell
+	 */
+	private int randomFreeCell() {
+		if (occupancy.getFreeCount() <= placedFruitCount) {
+			return -1;
+		}
+		int cell;
+		do {
+			cell = occupancy.randomFreeCell(random);
+		} while (hasFruit[cell]);
+		return cell;
+	}
+}
@@ -0,0 +1,100 @@
+package snake.engine;
+
+/**
+ * One of snakes of {@code ArenaEngine}
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class ArenaSnake {
+	// =============== Constants ===============
+	/**
+	 * Index of the snake in its arena
+	 */
+	private final int id;
+	/**
+	 * Cells of the snake
+	 */
+	final SnakeBody body;
+
+	// =============== Fields ===============
+	/**
+	 * Direction of the next tick
+	 */
+	Direction direction;
+	/**
+	 * How many parts are going to be added to the snake on next ticks
+	 */
+	int pendingGrowth;
+	/**
+	 * Cell where the head goes on the current tick, -1 if it is out of borders
+	 */
+	int next;
+	/**
+	 * Why the snake has died, null while it is alive
+	 */
+	FinishReason deathReason;
+	/**
+	 * Count of eaten fruits
+	 */
+	int countOfEatenFruits;
+
+	// =============== Constructors ===============
+	ArenaSnake(int id, OccupancyGrid grid, Direction direction) {
+		this.id = id;
+		this.body = new SnakeBody(grid);
+		this.direction = direction;
+	}
+
+	// =============== Get/Set ===============
+	public int getId() {
+		return id;
+	}
+
+	public boolean isAlive() {
+		return deathReason == null;
+	}
+
+	public FinishReason getDeathReason() {
+		return deathReason;
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * Returns cell of the head
+	 *
+	 * @return cell of the head, -1 if the snake is dead
+	 */
+	public int getHead() {
+		return isAlive() ? body.head() : -1;
+	}
+
+	/**
+	 * Returns length of the body without the head, including parts which are
+	 * going to be added
+	 *
+	 * @return length of the body
+	 */
+	public int getLength() {
+		return Math.max(0, body.size() - 1) + pendingGrowth;
+	}
+
+	public int getCountOfEatenFruits() {
+		return countOfEatenFruits;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Changes direction of the next tick, a snake can not turn back
+	 *
+	 * @param direction
+	 */
+	public void changeDirection(Direction direction) {
+		if (this.direction != direction.getOppositeDirection()) {
+			this.direction = direction;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package snake.engine;
+
+/**
+ * What is shown on a cell of a board
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public enum CellContent {
+	EMPTY, HEAD, BODY, APPLE, ORANGE,
+	/**
+	 * Part of a body where snake's head has crashed
+	 */
+	CRASH;
+
+	/**
+	 * Cached {@code values()}, so lookups by ordinal do not copy the array
+	 */
+	private static final CellContent[] VALUES = values();
+
+	/**
+	 * Returns content by its ordinal
+	 * 
+	 * @param ordinal
+	 * @return content by its ordinal
+	 */
+	public static CellContent valueOf(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * Returns content of a cell with a fruit
+	 * 
+	 * @param kind
+	 * @return content of a cell with a fruit
+	 */
+	public static CellContent of(FruitKind kind) {
+		return kind == FruitKind.APPLE ? APPLE : ORANGE;
+	}
+}
@@ -0,0 +1,53 @@
+package snake.engine;
+
+/**
+ * Enum containing 4 directions
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public enum Direction {
+	UP(0, -1), DOWN(0, 1), LEFT(-1, 0), RIGHT(1, 0);
+
+	/**
+	 * Shift along the x axis, in cells
+	 */
+	private final int dx;
+	/**
+	 * Shift along the y axis, in cells
+	 */
+	private final int dy;
+
+	Direction(int dx, int dy) {
+		this.dx = dx;
+		this.dy = dy;
+	}
+
+	public int getDx() {
+		return dx;
+	}
+
+	public int getDy() {
+		return dy;
+	}
+
+	/**
+	 * Returns opposite direction to actual
+	 * 
+	 * @return opposite direction to actual
+	 */
+	public Direction getOppositeDirection() {
+		switch (this) {
+		case UP:
+			return DOWN;
+		case LEFT:
+			return RIGHT;
+		case DOWN:
+			return UP;
+		case RIGHT:
+			return LEFT;
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package snake.engine;
+
+/**
+ * Reasons why a turn is finished
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public enum FinishReason {
+	/**
+	 * Snake's head is out of borders
+	 */
+	BORDER,
+	/**
+	 * Snake's head has run into it's own body
+	 */
+	SELF,
+	/**
+	 * Snake fills the whole board
+	 */
+	WIN,
+	/**
+	 * Turn was finished from outside, e.g. the window was closed
+	 */
+	STOPPED,
+	/**
+	 * Snake's head has run into another snake
+	 */
+	SNAKE,
+	/**
+	 * Snake's head has met a head of another snake
+	 */
+	HEAD_ON
+}
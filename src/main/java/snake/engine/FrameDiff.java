@@ -0,0 +1,153 @@
+package snake.engine;
+
+import java.util.Arrays;
+
+/**
+ * Changes of a board made during one or several ticks, in order they were
+ * made. A change either sets content of a cell or moves a part of a body from
+ * one cell to another. Changes are kept in a primitive array which is reused
+ * after {@code clear()}
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class FrameDiff {
+	// =============== Constants ===============
+	/**
+	 * Count of ints per change: type, first cell, second cell or content
+	 */
+	private static final int STRIDE = 3;
+	/**
+	 * Type of a change setting content of a cell
+	 */
+	private static final int SET = 0;
+	/**
+	 * Type of a change moving a part of a body
+	 */
+	private static final int MOVE = 1;
+
+	// =============== Fields ===============
+	/**
+	 * Encoded changes
+	 */
+	private int[] changes = new int[STRIDE * 16];
+	/**
+	 * Count of used ints in {@code changes}
+	 */
+	private int length;
+
+	// =============== Methods ===============
+	/**
+	 * Returns count of changes
+	 * 
+	 * @return count of changes
+	 */
+	public int size() {
+		return length / STRIDE;
+	}
+
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * Records that {@code cell} now shows {@code content}
+	 * 
+	 * @param cell
+	 * @param content
+	 */
+	public void set(int cell, CellContent content) {
+		add(SET, cell, content.ordinal());
+	}
+
+	/**
+	 * Records that a part of a body moved from {@code from} to {@code to}, the
+	 * cell {@code from} becomes empty
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	public void move(int from, int to) {
+		add(MOVE, from, to);
+	}
+
+	/**
+	 * Appends all changes of {@code other}
+	 * 
+	 * @param other
+	 */
+	public void addAll(FrameDiff other) {
+		ensureCapacity(length + other.length);
+		System.arraycopy(other.changes, 0, changes, length, other.length);
+		length += other.length;
+	}
+
+	/**
+	 * Removes all changes
+	 */
+	public void clear() {
+		length = 0;
+	}
+
+	/**
+	 * Passes every change to {@code handler} in order they were made
+	 * 
+	 * @param handler
+	 */
+	public void forEach(Handler handler) {
+		for (int i = 0; i < length; i += STRIDE) {
+			if (changes[i] == SET) {
+				handler.set(changes[i + 1], CellContent.valueOf(changes[i + 2]));
+			} else {
+				handler.move(changes[i + 1], changes[i + 2]);
+			}
+		}
+	}
+
+	/**
+	 * Appends one change
+	 * 
+	 * @param type
+	 * @param first
+	 * @param second
+	 */
+	private void add(int type, int first, int second) {
+		ensureCapacity(length + STRIDE);
+		changes[length] = type;
+		changes[length + 1] = first;
+		changes[length + 2] = second;
+		length += STRIDE;
+	}
+
+	/**
+	 * Grows {@code changes} if it is needed
+	 * 
+	 * @param capacity - required count of ints
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > changes.length) {
+			changes = Arrays.copyOf(changes, Math.max(capacity, changes.length * 2));
+		}
+	}
+
+	/**
+	 * Receives changes of a {@code FrameDiff}
+	 */
+	public interface Handler {
+		/**
+		 * {@code cell} now shows {@code content}
+		 * 
+		 * @param cell
+		 * @param content
+		 */
+		void set(int cell, CellContent content);
+
+		/**
+		 * A part of a body moved from {@code from} to {@code to}
+		 * 
+		 * @param from
+		 * @param to
+		 */
+		void move(int from, int to);
+	}
+}
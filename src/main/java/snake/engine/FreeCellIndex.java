@@ -0,0 +1,114 @@
+package snake.engine;
+
+/**
+ * Set of free cells of a board kept as a dense array. First {@code count}
+ * elements of {@code cells} are free cells, {@code positions} maps a cell to
+ * its index in {@code cells}. Adding and removing a cell swaps it with the
+ * border element, so every operation including a uniform random pick is O(1)
+ * and allocates nothing
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class FreeCellIndex {
+	// =============== Constants ===============
+	/**
+	 * Free cells followed by occupied ones
+	 */
+	private final int[] cells;
+	/**
+	 * Index of every cell in {@code cells}
+	 */
+	private final int[] positions;
+
+	// =============== Fields ===============
+	/**
+	 * Count of free cells
+	 */
+	private int count;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates an index where all cells are free
+	 *
+	 * @param size - count of cells of a board
+	 */
+	public FreeCellIndex(int size) {
+		cells = new int[size];
+		positions = new int[size];
+		clear();
+	}
+
+	// =============== Methods ===============
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Checks if a cell is free
+	 *
+	 * @param cell
+	 * @return true if the cell is free
+	 */
+	public boolean contains(int cell) {
+		return positions[cell] < count;
+	}
+
+	/**
+	 * Returns {@code i}-th free cell, the order changes with every update
+	 *
+	 * @param i - from 0 to {@code getCount() - 1}
+	 * @return {@code i}-th free cell
+	 */
+	public int get(int i) {
+		return cells[i];
+	}
+
+	/**
+	 * Marks a cell as free
+	 *
+	 * @param cell
+	 */
+	public void add(int cell) {
+		if (!contains(cell)) {
+			swap(positions[cell], count++);
+		}
+	}
+
+	/**
+	 * Marks a cell as occupied
+	 *
+	 * @param cell
+	 */
+	public void remove(int cell) {
+		if (contains(cell)) {
+			swap(positions[cell], --count);
+		}
+	}
+
+	/**
+	 * Marks all cells as free
+	 */
+	public void clear() {
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = i;
+			positions[i] = i;
+		}
+		count = cells.length;
+	}
+
+	/**
+	 * Swaps two elements of {@code cells}
+	 *
+	 * @param i
+	 * @param j
+	 */
+	private void swap(int i, int j) {
+		int cellI = cells[i];
+		int cellJ = cells[j];
+		cells[i] = cellJ;
+		cells[j] = cellI;
+		positions[cellJ] = i;
+		positions[cellI] = j;
+	}
+}
@@ -0,0 +1,24 @@
+package snake.engine;
+
+/**
+ * Kinds of fruit known to the engine
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public enum FruitKind {
+	APPLE(1), ORANGE(2);
+
+	/**
+	 * How many parts are added to a snake when the fruit is eaten
+	 */
+	private final int value;
+
+	FruitKind(int value) {
+		this.value = value;
+	}
+
+	public int getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,698 @@
+package snake.engine;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import snake.interfaces.IGameLogic;
+import snake.interfaces.IGameObserver;
+import snake.results.Results;
+
+/**
+ * Headless simulation of a game. The board is a grid of {@code width} x
+ * {@code height} cells, every cell is addressed by an index
+ * {@code y * width + x}. The class has no dependencies on JavaFX, so it can be
+ * driven by a GUI as well as by bots or tests, one {@code tick()} at a time
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class GameEngine implements IGameLogic {
+	// =============== Constants ===============
+	/**
+	 * Default count of ticks between generating cycles of oranges
+	 */
+	public static final int TICKS_TO_GENERATE_ORANGE = 50;
+	/**
+	 * Probability of an orange to appear in a generating cycle
+	 */
+	static final double ORANGE_PROBABILITY = 0.1;
+	/**
+	 * First bytes of a snapshot, "SNSS"
+	 */
+	private static final int SNAPSHOT_MAGIC = 0x534E5353;
+	/**
+	 * Version of the format of a snapshot
+	 */
+	private static final int SNAPSHOT_VERSION = 1;
+	/**
+	 * Size of a snapshot without moves of the body
+	 */
+	private static final int SNAPSHOT_HEADER_SIZE = 80;
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Cached {@code FinishReason.values()}
+	 */
+	private static final FinishReason[] FINISH_REASONS = FinishReason.values();
+	/**
+	 * Observer which ignores every notification
+	 */
+	private static final IGameObserver NO_OBSERVER = new IGameObserver() {
+	};
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * Cells of a snake
+	 */
+	private final SnakeBody body;
+	/**
+	 * Cells occupied by a snake
+	 */
+	private final OccupancyGrid occupancy;
+	/**
+	 * Objects responsible for duration of a turn
+	 */
+	private final Stopwatch stopwatch = new Stopwatch();
+	/**
+	 * Changes of a board made during current tick
+	 */
+	private final FrameDiff diff = new FrameDiff();
+	/**
+	 * Source of random positions of fruits
+	 */
+	private final LcgRandom random = new LcgRandom();
+
+	// =============== Fields ===============
+	/**
+	 * Who is notified about changes of a game state
+	 */
+	private IGameObserver observer = NO_OBSERVER;
+	/**
+	 * How many ticks between generating cycles of oranges
+	 */
+	private int ticksToGenerateOrange = TICKS_TO_GENERATE_ORANGE;
+	/**
+	 * Flag representing the state of a turn
+	 */
+	private volatile boolean isGameRunning = false;
+	/**
+	 * Current direction of snake's head
+	 */
+	private Direction currentDirection = Direction.RIGHT;
+	/**
+	 * Direction used by the last tick
+	 */
+	private Direction appliedDirection = Direction.RIGHT;
+	/**
+	 * How many parts are going to be added to a snake on next ticks
+	 */
+	private int pendingGrowth;
+	/**
+	 * Cell of an apple, -1 if there is no apple
+	 */
+	private int appleCell = -1;
+	/**
+	 * Cell of an orange, -1 if there is no orange
+	 */
+	private int orangeCell = -1;
+	/**
+	 * Count of eaten apples
+	 */
+	private int countOfEatenApples;
+	/**
+	 * Count of eaten oranges
+	 */
+	private int countOfEatenOranges;
+	/**
+	 * Count of ticks since the start of a turn
+	 */
+	private long tickCount;
+	/**
+	 * Why the last turn is finished, null while it is running
+	 */
+	private FinishReason finishReason;
+	/**
+	 * Seed of {@code random} for the current turn
+	 */
+	private long seed;
+	/**
+	 * Flag showing that {@code seed} is set for the next turn
+	 */
+	private boolean isSeedSet;
+
+	// =============== Constructors ===============
+	public GameEngine(int width, int height) {
+		if (width < 2 || height < 2) {
+			throw new IllegalArgumentException("Board is too small: " + width + "x" + height);
+		}
+		if ((long) width * height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Board is too big: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		occupancy = new OccupancyGrid(width, height);
+		body = new SnakeBody(occupancy);
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Sets seed of the next turn. Positions of fruits repeat for the same seed and
+	 * the same moves. A turn started without a seed gets a random one
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		isSeedSet = true;
+	}
+
+	/**
+	 * Returns seed of the current turn
+	 *
+	 * @return seed of the current turn
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setObserver(IGameObserver observer) {
+		this.observer = observer == null ? NO_OBSERVER : observer;
+	}
+
+	/**
+	 * Sets how many ticks between generating cycles of oranges
+	 *
+	 * @param ticksToGenerateOrange - positive count of ticks
+	 */
+	public void setTicksToGenerateOrange(int ticksToGenerateOrange) {
+		if (ticksToGenerateOrange < 1) {
+			throw new IllegalArgumentException("Count of ticks must be positive: " + ticksToGenerateOrange);
+		}
+		this.ticksToGenerateOrange = ticksToGenerateOrange;
+	}
+
+	public int getTicksToGenerateOrange() {
+		return ticksToGenerateOrange;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isGameRunning() {
+		return isGameRunning;
+	}
+
+	/**
+	 * Returns cells occupied by a snake. The grid must not be changed from outside
+	 *
+	 * @return cells occupied by a snake
+	 */
+	public OccupancyGrid getOccupancy() {
+		return occupancy;
+	}
+
+	public Direction getCurrentDirection() {
+		return currentDirection;
+	}
+
+	/**
+	 * Returns cells of the snake. The body must not be changed from outside
+	 *
+	 * @return cells of the snake, the head first
+	 */
+	public SnakeBody getBody() {
+		return body;
+	}
+
+	/**
+	 * Returns how many parts are going to be added to the snake, one per tick
+	 *
+	 * @return count of parts to add
+	 */
+	public int getPendingGrowth() {
+		return pendingGrowth;
+	}
+
+	public int getHeadX() {
+		return body.head() % width;
+	}
+
+	public int getHeadY() {
+		return body.head() / width;
+	}
+
+	public int getAppleCell() {
+		return appleCell;
+	}
+
+	public int getOrangeCell() {
+		return orangeCell;
+	}
+
+	/**
+	 * Returns what is on a cell now
+	 *
+	 * @param cell
+	 * @return content of the cell
+	 */
+	public CellContent getContent(int cell) {
+		if (cell == body.head()) {
+			return CellContent.HEAD;
+		} else if (occupancy.isOccupied(cell)) {
+			return CellContent.BODY;
+		} else if (cell == appleCell) {
+			return CellContent.APPLE;
+		} else if (cell == orangeCell) {
+			return CellContent.ORANGE;
+		}
+		return CellContent.EMPTY;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public FinishReason getFinishReason() {
+		return finishReason;
+	}
+
+	/**
+	 * Returns length of snake's body without a head, including parts which are
+	 * going to be added
+	 *
+	 * @return length of snake's body
+	 */
+	public int getLength() {
+		return body.size() - 1 + pendingGrowth;
+	}
+
+	public int getCountOfEatenApples() {
+		return countOfEatenApples;
+	}
+
+	public int getCountOfEatenOranges() {
+		return countOfEatenOranges;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public void initGame() {
+		if (!isSeedSet) {
+			seed = ThreadLocalRandom.current().nextLong();
+		}
+		isSeedSet = false;
+		random.setSeed(seed);
+		body.clear();
+		// order of free cells depends on the previous turn, fruits must not
+		occupancy.clear();
+		body.pushHead((height / 2) * width + width / 2);
+		pendingGrowth = 0;
+		appleCell = -1;
+		orangeCell = -1;
+		countOfEatenApples = 0;
+		countOfEatenOranges = 0;
+		tickCount = 0;
+		finishReason = null;
+		currentDirection = Direction.RIGHT;
+		appliedDirection = Direction.RIGHT;
+		isGameRunning = true;
+		diff.clear();
+		diff.set(body.head(), CellContent.HEAD);
+		observer.snakeMoved(getHeadX(), getHeadY());
+		plantApple();
+		stopwatch.start();
+		flushDiff();
+	}
+
+	@Override
+	public void changeDirection(Direction direction) {
+		if (this.currentDirection != direction.getOppositeDirection()) {
+			this.currentDirection = direction;
+		}
+	}
+
+	/**
+	 * Sets direction of snake's head without checking that the snake does not
+	 * turn back, so a replay repeats a recorded turn exactly
+	 *
+	 * @param direction
+	 */
+	public void forceDirection(Direction direction) {
+		this.currentDirection = direction;
+	}
+
+	@Override
+	public void finishGame() {
+		finish(FinishReason.STOPPED, getHeadX(), getHeadY());
+	}
+
+	/**
+	 * Moves the snake on one cell in current direction, checks collisions and
+	 * fruits. All changes of a board are passed to the observer at once, at the
+	 * end of the tick
+	 *
+	 * @return true if a turn is still running after the tick
+	 */
+	public boolean tick() {
+		if (!isGameRunning) {
+			return false;
+		}
+		boolean isRunning = step();
+		flushDiff();
+		return isRunning;
+	}
+
+	/**
+	 * Makes one tick
+	 *
+	 * @return true if a turn is still running after the tick
+	 */
+	private boolean step() {
+		tickCount++;
+		Direction direction = currentDirection;
+		if (direction != appliedDirection) {
+			appliedDirection = direction;
+			observer.directionApplied(tickCount, direction);
+		}
+		int x = getHeadX() + direction.getDx();
+		int y = getHeadY() + direction.getDy();
+		if (!occupancy.isInside(x, y)) {
+			finish(FinishReason.BORDER, x, y);
+			return false;
+		}
+		int next = y * width + x;
+		boolean grows = pendingGrowth > 0;
+		// the last cell is released on this tick unless the snake grows
+		if (occupancy.isOccupied(next) && (grows || next != body.tail())) {
+			diff.set(next, CellContent.CRASH);
+			finish(FinishReason.SELF, x, y);
+			return false;
+		}
+		int previousHead = body.head();
+		if (grows) {
+			pendingGrowth--;
+			diff.set(previousHead, CellContent.BODY);
+		} else {
+			int tail = body.popTail();
+			if (tail != previousHead) {
+				diff.move(tail, previousHead);
+			}
+		}
+		body.pushHead(next);
+		diff.set(next, CellContent.HEAD);
+		observer.snakeMoved(x, y);
+
+		if (next == appleCell) {
+			appleCell = -1;
+			countOfEatenApples++;
+			eat(FruitKind.APPLE);
+		}
+		if (next == orangeCell) {
+			orangeCell = -1;
+			countOfEatenOranges++;
+			eat(FruitKind.ORANGE);
+		}
+		if (appleCell < 0) {
+			// the apple is eaten or waits for a cell which is not under the orange
+			plantApple();
+		}
+		if (isGameRunning && tickCount % ticksToGenerateOrange == 0 && random.nextDouble() < ORANGE_PROBABILITY) {
+			plantOrange();
+		}
+		return isGameRunning;
+	}
+
+	/**
+	 * Grows a snake on value of eaten fruit
+	 *
+	 * @param kind
+	 */
+	private void eat(FruitKind kind) {
+		pendingGrowth += kind.getValue();
+		observer.fruitEaten(kind);
+		observer.fruitRemoved(kind);
+		observer.snakeGrown(kind.getValue());
+	}
+
+	/**
+	 * Places an apple on a random free cell, finishes a turn with a win if the
+	 * snake fills the whole board. If the only free cell holds the orange, no
+	 * apple is placed until another cell is free
+	 */
+	private void plantApple() {
+		if (occupancy.getFreeCount() == 0) {
+			finish(FinishReason.WIN, getHeadX(), getHeadY());
+			return;
+		}
+		appleCell = randomFreeCell();
+		if (appleCell < 0) {
+			return;
+		}
+		diff.set(appleCell, CellContent.APPLE);
+		observer.fruitPlaced(FruitKind.APPLE, appleCell % width, appleCell / width);
+	}
+
+	/**
+	 * Places an orange on a random free cell, replacing existing one
+	 */
+	private void plantOrange() {
+		if (orangeCell >= 0) {
+			diff.set(orangeCell, CellContent.EMPTY);
+			orangeCell = -1;
+			observer.fruitRemoved(FruitKind.ORANGE);
+		}
+		orangeCell = randomFreeCell();
+		if (orangeCell >= 0) {
+			diff.set(orangeCell, CellContent.ORANGE);
+			observer.fruitPlaced(FruitKind.ORANGE, orangeCell % width, orangeCell / width);
+		}
+	}
+
+	/**
+	 * Returns a random cell which is not occupied by a snake or a fruit
+	 *
+	 * @return a random free cell, -1 if every free cell holds a fruit
+	 */
+	private int randomFreeCell() {
+		// fruits are never under a snake, so they are among free cells of the grid
+		int fruitCount = (appleCell >= 0 ? 1 : 0) + (orangeCell >= 0 ? 1 : 0);
+		if (occupancy.getFreeCount() <= fruitCount) {
+			return -1;
+		}
+		int cell;
+		do {
+			cell = occupancy.randomFreeCell(random);
+		} while (cell == appleCell || cell == orangeCell);
+		return cell;
+	}
+
+	/**
+	 * Finishes a turn once
+	 *
+	 * @param reason
+	 * @param x      - x coordinate where snake's head was going
+	 * @param y      - y coordinate where snake's head was going
+	 */
+	private void finish(FinishReason reason, int x, int y) {
+		if (!isGameRunning) {
+			return;
+		}
+		isGameRunning = false;
+		finishReason = reason;
+		stopwatch.stop();
+		flushDiff();
+		observer.gameFinished(reason, x, y);
+	}
+
+	/**
+	 * Passes changes of a board to the observer and starts a new diff
+	 */
+	private void flushDiff() {
+		if (!diff.isEmpty()) {
+			observer.frameFinished(diff);
+			diff.clear();
+		}
+	}
+
+	/**
+	 * Returns size of a snapshot of the current state
+	 *
+	 * @return count of bytes written by {@code writeSnapshot()}
+	 */
+	public int getSnapshotSize() {
+		// every part of the body after the head takes 2 bits
+		return SNAPSHOT_HEADER_SIZE + (body.size() + 2) / 4;
+	}
+
+	/**
+	 * Writes the current state of a turn, so it can be continued later without
+	 * repeating its ticks: settings of a board, the snake, fruits, counters,
+	 * elapsed time and the state of the random generator. The body is stored as
+	 * the head and a direction of 2 bits to every next part. Fruits placed after
+	 * the snapshot is read depend only on the snapshot and next moves, they may
+	 * differ from the ones of the turn the snapshot is made of
+	 *
+	 * @param buffer - must have {@code getSnapshotSize()} bytes remaining
+	 */
+	public void writeSnapshot(ByteBuffer buffer) {
+		buffer.putInt(SNAPSHOT_MAGIC);
+		buffer.put((byte) SNAPSHOT_VERSION);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putInt(ticksToGenerateOrange);
+		// 0 while a turn is running
+		buffer.put((byte) (isGameRunning || finishReason == null ? 0 : finishReason.ordinal() + 1));
+		buffer.put((byte) currentDirection.ordinal());
+		buffer.put((byte) appliedDirection.ordinal());
+		buffer.putInt(pendingGrowth);
+		buffer.putInt(appleCell);
+		buffer.putInt(orangeCell);
+		buffer.putInt(countOfEatenApples);
+		buffer.putInt(countOfEatenOranges);
+		buffer.putLong(tickCount);
+		buffer.putLong(seed);
+		buffer.putLong(random.getState());
+		buffer.putLong(stopwatch.getElapsedMillis());
+		int size = body.size();
+		buffer.putInt(size);
+		int previous = body.head();
+		buffer.putInt(previous);
+		// 32 moves are packed in a long, the first one in the lowest bits of the
+		// first byte
+		long packed = 0;
+		for (int i = 1; i < size; i++) {
+			int cell = body.get(i);
+			int delta = cell - previous;
+			// ordinal of a direction: bit 0 for a positive move, bit 1 for a horizontal one
+			long direction = (-delta >>> 31) | (Math.abs(delta) - 2 >>> 31) << 1;
+			packed |= direction << ((i - 1 & 31) << 1);
+			if ((i & 31) == 0) {
+				buffer.putLong(Long.reverseBytes(packed));
+				packed = 0;
+			}
+			previous = cell;
+		}
+		for (int i = (size - 1 & 31) + 3 >> 2; i > 0; i--) {
+			buffer.put((byte) packed);
+			packed >>>= 8;
+		}
+	}
+
+	/**
+	 * Replaces the current turn with one written by {@code writeSnapshot()}. The
+	 * observer gets the whole board as one frame. A running turn continues with
+	 * the next {@code tick()}
+	 *
+	 * @param buffer - snapshot of a board of the same size
+	 * @throws IllegalArgumentException if the snapshot is damaged or is made on a
+	 *                                  board of another size, the turn must be
+	 *                                  started again then
+	 */
+	public void readSnapshot(ByteBuffer buffer) {
+		if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.get() != SNAPSHOT_VERSION) {
+			throw new IllegalArgumentException("Not a snapshot");
+		}
+		int snapshotWidth = buffer.getInt();
+		int snapshotHeight = buffer.getInt();
+		if (snapshotWidth != width || snapshotHeight != height) {
+			throw new IllegalArgumentException(
+					"Snapshot of a board " + snapshotWidth + "x" + snapshotHeight + ", not " + width + "x" + height);
+		}
+		int snapshotTicksToGenerateOrange = buffer.getInt();
+		int state = buffer.get();
+		int current = buffer.get();
+		int applied = buffer.get();
+		int snapshotGrowth = buffer.getInt();
+		int apple = buffer.getInt();
+		int orange = buffer.getInt();
+		int apples = buffer.getInt();
+		int oranges = buffer.getInt();
+		long ticks = buffer.getLong();
+		long snapshotSeed = buffer.getLong();
+		long randomState = buffer.getLong();
+		long elapsedMillis = buffer.getLong();
+		int size = buffer.getInt();
+		int head = buffer.getInt();
+		int cellCount = width * height;
+		if (snapshotTicksToGenerateOrange < 1 || state < 0 || state > FINISH_REASONS.length || current < 0
+				|| current >= DIRECTIONS.length || applied < 0 || applied >= DIRECTIONS.length || snapshotGrowth < 0
+				|| apple < -1 || apple >= cellCount || orange < -1 || orange >= cellCount || ticks < 0 || size < 1
+				|| size > cellCount || head < 0 || head >= cellCount || buffer.remaining() < (size + 2) / 4) {
+			throw new IllegalArgumentException("Damaged snapshot");
+		}
+		isGameRunning = false;
+		body.clear();
+		occupancy.clear();
+		body.pushHead(head);
+		int previous = head;
+		int packed = 0;
+		for (int i = 1; i < size; i++) {
+			if ((i - 1 & 3) == 0) {
+				packed = buffer.get();
+			}
+			Direction direction = DIRECTIONS[packed >>> ((i - 1 & 3) << 1) & 3];
+			int x = previous % width + direction.getDx();
+			int y = previous / width + direction.getDy();
+			if (!occupancy.isFree(x, y)) {
+				body.clear();
+				throw new IllegalArgumentException("Damaged snapshot");
+			}
+			previous = y * width + x;
+			body.pushTail(previous);
+		}
+		if (apple >= 0 && occupancy.isOccupied(apple) || orange >= 0 && occupancy.isOccupied(orange)) {
+			body.clear();
+			throw new IllegalArgumentException("Damaged snapshot");
+		}
+		ticksToGenerateOrange = snapshotTicksToGenerateOrange;
+		finishReason = state == 0 ? null : FINISH_REASONS[state - 1];
+		currentDirection = DIRECTIONS[current];
+		appliedDirection = DIRECTIONS[applied];
+		pendingGrowth = snapshotGrowth;
+		appleCell = apple;
+		orangeCell = orange;
+		countOfEatenApples = apples;
+		countOfEatenOranges = oranges;
+		tickCount = ticks;
+		seed = snapshotSeed;
+		isSeedSet = false;
+		random.setState(randomState);
+		stopwatch.resume(elapsedMillis);
+		if (finishReason != null) {
+			stopwatch.stop();
+		}
+		isGameRunning = finishReason == null;
+		diff.clear();
+		diff.set(head, CellContent.HEAD);
+		for (int i = 1; i < size; i++) {
+			diff.set(body.get(i), CellContent.BODY);
+		}
+		if (appleCell >= 0) {
+			diff.set(appleCell, CellContent.APPLE);
+		}
+		if (orangeCell >= 0) {
+			diff.set(orangeCell, CellContent.ORANGE);
+		}
+		observer.snakeMoved(getHeadX(), getHeadY());
+		flushDiff();
+	}
+
+	/**
+	 * Returns results of a turn
+	 *
+	 * @return object of {@code Results} class filled with data of a turn
+	 */
+	public Results getCurrentResults() {
+		Results results = new Results();
+		results.setCountOfEatenApples(countOfEatenApples);
+		results.setCountOfEatenOranges(countOfEatenOranges);
+		results.setLength(getLength());
+		results.setTimeMinutes(stopwatch.getTimeMinutes());
+		results.setTimestamp(System.currentTimeMillis());
+		results.setSeed(seed);
+		return results;
+	}
+}
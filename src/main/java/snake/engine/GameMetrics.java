@@ -0,0 +1,288 @@
+package snake.engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timings and counters of a running game: how long ticks take, how late they
+ * start, how long a frame waits in the queue of JavaFX, how long a turn waits
+ * for a tick, how many ticks are run and fruits are eaten and spawned.
+ * Recording allocates nothing, so it is done on every tick. Values can be read
+ * with JConsole or VisualVM after {@code register()}
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class GameMetrics implements GameMetricsMBean {
+	// =============== Constants ===============
+	/**
+	 * Name of the MBean
+	 */
+	public static final String OBJECT_NAME = "snake:type=GameMetrics";
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(GameMetrics.class);
+	/**
+	 * Time spent in a tick
+	 */
+	private final LatencyHistogram tickDuration = new LatencyHistogram();
+	/**
+	 * Time between a deadline of a tick and its start
+	 */
+	private final LatencyHistogram schedulingLag = new LatencyHistogram();
+	/**
+	 * Time between offering a frame to a GUI and drawing it
+	 */
+	private final LatencyHistogram renderQueueDelay = new LatencyHistogram();
+	/**
+	 * Time between pressing a key and the tick applying the turn
+	 */
+	private final LatencyHistogram inputLatency = new LatencyHistogram();
+	/**
+	 * Count of ticks
+	 */
+	private final AtomicLong tickCount = new AtomicLong();
+	/**
+	 * Count of eaten apples
+	 */
+	private final AtomicLong applesEaten = new AtomicLong();
+	/**
+	 * Count of eaten oranges
+	 */
+	private final AtomicLong orangesEaten = new AtomicLong();
+	/**
+	 * Count of placed fruits
+	 */
+	private final AtomicLong fruitsSpawned = new AtomicLong();
+	/**
+	 * Count of turns dropped because the input queue was full
+	 */
+	private final AtomicLong droppedInputs = new AtomicLong();
+
+	// =============== Methods ===============
+	/**
+	 * Publishes the metrics on the platform MBean server as
+	 * {@code OBJECT_NAME}, replacing previously published ones
+	 */
+	public void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+		} catch (JMException e) {
+			LOGGER.warn("Can not register game metrics", e);
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server if they are published
+	 */
+	public void unregister() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			LOGGER.warn("Can not unregister game metrics", e);
+		}
+	}
+
+	/**
+	 * Records a finished tick
+	 * 
+	 * @param lagNanos      - how late the tick has started
+	 * @param durationNanos - how long the tick has taken
+	 */
+	public void tickFinished(long lagNanos, long durationNanos) {
+		tickCount.incrementAndGet();
+		schedulingLag.record(lagNanos);
+		tickDuration.record(durationNanos);
+	}
+
+	/**
+	 * Records a frame drawn by a GUI
+	 * 
+	 * @param delayNanos - how long the frame has waited to be drawn
+	 */
+	public void frameRendered(long delayNanos) {
+		renderQueueDelay.record(delayNanos);
+	}
+
+	/**
+	 * Records a turn applied by a tick
+	 * 
+	 * @param latencyNanos - time between pressing a key and the tick
+	 */
+	public void inputApplied(long latencyNanos) {
+		inputLatency.record(latencyNanos);
+	}
+
+	/**
+	 * Records a turn dropped because the input queue was full
+	 */
+	public void inputDropped() {
+		droppedInputs.incrementAndGet();
+	}
+
+	/**
+	 * Records an eaten fruit
+	 * 
+	 * @param kind
+	 */
+	public void fruitEaten(FruitKind kind) {
+		if (kind == FruitKind.APPLE) {
+			applesEaten.incrementAndGet();
+		} else {
+			orangesEaten.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records a placed fruit
+	 */
+	public void fruitSpawned() {
+		fruitsSpawned.incrementAndGet();
+	}
+
+	@Override
+	public void reset() {
+		tickDuration.reset();
+		schedulingLag.reset();
+		renderQueueDelay.reset();
+		inputLatency.reset();
+		tickCount.set(0);
+		applesEaten.set(0);
+		orangesEaten.set(0);
+		fruitsSpawned.set(0);
+		droppedInputs.set(0);
+	}
+
+	@Override
+	public long getTickCount() {
+		return tickCount.get();
+	}
+
+	@Override
+	public long getApplesEaten() {
+		return applesEaten.get();
+	}
+
+	@Override
+	public long getOrangesEaten() {
+		return orangesEaten.get();
+	}
+
+	@Override
+	public long getFruitsSpawned() {
+		return fruitsSpawned.get();
+	}
+
+	@Override
+	public long getDroppedInputs() {
+		return droppedInputs.get();
+	}
+
+	@Override
+	public long getTickDurationP50() {
+		return toMicros(tickDuration.getPercentile(50));
+	}
+
+	@Override
+	public long getTickDurationP99() {
+		return toMicros(tickDuration.getPercentile(99));
+	}
+
+	@Override
+	public long getTickDurationMax() {
+		return toMicros(tickDuration.getMax());
+	}
+
+	@Override
+	public double getTickDurationMean() {
+		return tickDuration.getMean() / 1000;
+	}
+
+	@Override
+	public long getSchedulingLagP50() {
+		return toMicros(schedulingLag.getPercentile(50));
+	}
+
+	@Override
+	public long getSchedulingLagP99() {
+		return toMicros(schedulingLag.getPercentile(99));
+	}
+
+	@Override
+	public long getSchedulingLagMax() {
+		return toMicros(schedulingLag.getMax());
+	}
+
+	@Override
+	public double getSchedulingLagMean() {
+		return schedulingLag.getMean() / 1000;
+	}
+
+	@Override
+	public long getRenderQueueDelayP50() {
+		return toMicros(renderQueueDelay.getPercentile(50));
+	}
+
+	@Override
+	public long getRenderQueueDelayP99() {
+		return toMicros(renderQueueDelay.getPercentile(99));
+	}
+
+	@Override
+	public long getRenderQueueDelayMax() {
+		return toMicros(renderQueueDelay.getMax());
+	}
+
+	@Override
+	public double getRenderQueueDelayMean() {
+		return renderQueueDelay.getMean() / 1000;
+	}
+
+	@Override
+	public long getInputLatencyP50() {
+		return toMicros(inputLatency.getPercentile(50));
+	}
+
+	@Override
+	public long getInputLatencyP99() {
+		return toMicros(inputLatency.getPercentile(99));
+	}
+
+	@Override
+	public long getInputLatencyMax() {
+		return toMicros(inputLatency.getMax());
+	}
+
+	@Override
+	public double getInputLatencyMean() {
+		return inputLatency.getMean() / 1000;
+	}
+
+	/**
+	 * Converts nanoseconds to microseconds
+	 * 
+	 * @param nanos
+	 * @return microseconds
+	 */
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
@@ -0,0 +1,56 @@
+package snake.engine;
+
+/**
+ * Management interface of {@code GameMetrics}. Durations are in microseconds
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface GameMetricsMBean {
+	long getTickCount();
+
+	long getApplesEaten();
+
+	long getOrangesEaten();
+
+	long getFruitsSpawned();
+
+	long getDroppedInputs();
+
+	long getTickDurationP50();
+
+	long getTickDurationP99();
+
+	long getTickDurationMax();
+
+	double getTickDurationMean();
+
+	long getSchedulingLagP50();
+
+	long getSchedulingLagP99();
+
+	long getSchedulingLagMax();
+
+	double getSchedulingLagMean();
+
+	long getRenderQueueDelayP50();
+
+	long getRenderQueueDelayP99();
+
+	long getRenderQueueDelayMax();
+
+	double getRenderQueueDelayMean();
+
+	long getInputLatencyP50();
+
+	long getInputLatencyP99();
+
+	long getInputLatencyMax();
+
+	double getInputLatencyMean();
+
+	/**
+	 * Drops all collected values, e.g. to measure a new session
+	 */
+	void reset();
+}
@@ -0,0 +1,482 @@
+package snake.engine;
+
+/**
+ * Compact copy of a game which can be played on by itself, made for bots
+ * searching ahead. A state is a few primitive fields and two arrays: cells of
+ * the snake in a circular array and occupied cells one bit per cell. A fork
+ * shares the arrays with its origin until one of them moves, the one that moves
+ * copies them first, so forking costs the same for a snake of any length.
+ *
+ * A state has its own random generator, its value is a part of the state, so
+ * a fork places fruits where its origin would. Positions of fruits differ from
+ * the ones of {@code GameEngine} after the copy is made. A state and its forks
+ * may be used by different threads, every one by a single thread
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class GameState {
+	// =============== Constants ===============
+	/**
+	 * Minimal length of {@code cells}
+	 */
+	private static final int MIN_CAPACITY = 16;
+	/**
+	 * How many random cells are tried before looking for a free cell by counting
+	 */
+	private static final int MAX_RANDOM_TRIES = 32;
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * How many ticks between generating cycles of oranges
+	 */
+	private final int ticksToGenerateOrange;
+
+	// =============== Fields ===============
+	/**
+	 * Circular buffer of cells of the snake
+	 */
+	private int[] cells;
+	/**
+	 * Index of the head in {@code cells}
+	 */
+	private int head;
+	/**
+	 * Count of cells of the snake
+	 */
+	private int size;
+	/**
+	 * Bits of occupied cells, cell {@code i} is bit {@code i % 64} of word
+	 * {@code i / 64}
+	 */
+	private long[] words;
+	/**
+	 * Flag showing that the arrays may be used by another state, so they are
+	 * copied before a change
+	 */
+	private boolean isShared;
+	/**
+	 * Current direction of snake's head
+	 */
+	private Direction direction;
+	/**
+	 * How many parts are going to be added to the snake on next ticks
+	 */
+	private int pendingGrowth;
+	/**
+	 * Cell of an apple, -1 if there is no apple
+	 */
+	private int appleCell;
+	/**
+	 * Cell of an orange, -1 if there is no orange
+	 */
+	private int orangeCell;
+	/**
+	 * Count of eaten apples
+	 */
+	private int countOfEatenApples;
+	/**
+	 * Count of eaten oranges
+	 */
+	private int countOfEatenOranges;
+	/**
+	 * Count of ticks since the start of a turn
+	 */
+	private long tickCount;
+	/**
+	 * Why a turn is finished, null while it is running
+	 */
+	private FinishReason finishReason;
+	/**
+	 * State of the random generator
+	 */
+	private long randomState;
+
+	// =============== Constructors ===============
+	/**
+	 * Copies the current state of a game
+	 *
+	 * @param engine
+	 */
+	public GameState(GameEngine engine) {
+		width = engine.getWidth();
+		height = engine.getHeight();
+		ticksToGenerateOrange = engine.getTicksToGenerateOrange();
+		SnakeBody body = engine.getBody();
+		int capacity = MIN_CAPACITY;
+		while (capacity < body.size()) {
+			capacity <<= 1;
+		}
+		cells = new int[Math.min(capacity, width * height)];
+		words = new long[(width * height + 63) >>> 6];
+		for (int i = body.size() - 1; i >= 0; i--) {
+			pushHead(body.get(i));
+		}
+		direction = engine.getCurrentDirection();
+		pendingGrowth = engine.getPendingGrowth();
+		appleCell = engine.getAppleCell();
+		orangeCell = engine.getOrangeCell();
+		countOfEatenApples = engine.getCountOfEatenApples();
+		countOfEatenOranges = engine.getCountOfEatenOranges();
+		tickCount = engine.getTickCount();
+		finishReason = engine.isGameRunning() ? null : engine.getFinishReason();
+		randomState = engine.getSeed() ^ tickCount;
+	}
+
+	/**
+	 * Makes a fork sharing arrays with {@code origin}
+	 *
+	 * @param origin
+	 */
+	private GameState(GameState origin) {
+		width = origin.width;
+		height = origin.height;
+		ticksToGenerateOrange = origin.ticksToGenerateOrange;
+		copyFields(origin);
+		cells = origin.cells;
+		words = origin.words;
+		isShared = true;
+		origin.isShared = true;
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Sets seed of the random generator, so forks of the same state place fruits
+	 * differently
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		randomState = seed;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns cell of the head
+	 *
+	 * @return cell of the head
+	 */
+	public int head() {
+		return cells[head];
+	}
+
+	/**
+	 * Returns cell of the tail
+	 *
+	 * @return cell of the tail
+	 */
+	public int tail() {
+		int index = head + size - 1;
+		return cells[index >= cells.length ? index - cells.length : index];
+	}
+
+	/**
+	 * Returns count of cells of the snake with the head
+	 *
+	 * @return count of cells of the snake
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns length of snake's body without a head, including parts which are
+	 * going to be added
+	 *
+	 * @return length of snake's body
+	 */
+	public int getLength() {
+		return size - 1 + pendingGrowth;
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	public int getPendingGrowth() {
+		return pendingGrowth;
+	}
+
+	public int getAppleCell() {
+		return appleCell;
+	}
+
+	public int getOrangeCell() {
+		return orangeCell;
+	}
+
+	public int getCountOfEatenApples() {
+		return countOfEatenApples;
+	}
+
+	public int getCountOfEatenOranges() {
+		return countOfEatenOranges;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public boolean isRunning() {
+		return finishReason == null;
+	}
+
+	public FinishReason getFinishReason() {
+		return finishReason;
+	}
+
+	/**
+	 * Checks if a cell is occupied by the snake
+	 *
+	 * @param cell
+	 * @return true if the cell is occupied
+	 */
+	public boolean isOccupied(int cell) {
+		return (words[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Makes a copy which shares arrays with this state until one of them moves
+	 *
+	 * @return a copy of this state
+	 */
+	public GameState fork() {
+		return new GameState(this);
+	}
+
+	/**
+	 * Makes this state equal to another state of a board of the same size,
+	 * reusing own arrays if they are not shared, so a state can be reused by many
+	 * playouts without allocation
+	 *
+	 * @param other
+	 */
+	public void copyFrom(GameState other) {
+		if (other.width != width || other.height != height) {
+			throw new IllegalArgumentException("States of different boards");
+		}
+		if (isShared || cells.length != other.cells.length) {
+			cells = new int[other.cells.length];
+			words = new long[other.words.length];
+			isShared = false;
+		}
+		System.arraycopy(other.cells, 0, cells, 0, cells.length);
+		System.arraycopy(other.words, 0, words, 0, words.length);
+		copyFields(other);
+	}
+
+	/**
+	 * Checks that the snake does not crash on the next tick
+	 *
+	 * @param direction - direction of the next tick, must not be opposite to the
+	 *                  current one
+	 * @return true if the head can move in the direction
+	 */
+	public boolean canMove(Direction direction) {
+		int headCell = cells[head];
+		int x = headCell % width + direction.getDx();
+		int y = headCell / width + direction.getDy();
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return false;
+		}
+		int next = y * width + x;
+		return !isOccupied(next) || pendingGrowth == 0 && next == tail();
+	}
+
+	/**
+	 * Turns the snake unless the direction is opposite to the current one and
+	 * makes one tick, the same way as {@code GameEngine} does
+	 *
+	 * @param direction
+	 * @return true if a turn is still running after the tick
+	 */
+	public boolean step(Direction direction) {
+		if (finishReason != null) {
+			return false;
+		}
+		if (direction != this.direction.getOppositeDirection()) {
+			this.direction = direction;
+		}
+		tickCount++;
+		int headCell = cells[head];
+		int x = headCell % width + this.direction.getDx();
+		int y = headCell / width + this.direction.getDy();
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			finishReason = FinishReason.BORDER;
+			return false;
+		}
+		int next = y * width + x;
+		boolean grows = pendingGrowth > 0;
+		if (isOccupied(next) && (grows || next != tail())) {
+			finishReason = FinishReason.SELF;
+			return false;
+		}
+		if (isShared) {
+			cells = cells.clone();
+			words = words.clone();
+			isShared = false;
+		}
+		if (grows) {
+			pendingGrowth--;
+		} else {
+			int tail = tail();
+			words[tail >>> 6] &= ~(1L << tail);
+			size--;
+		}
+		pushHead(next);
+		if (next == appleCell) {
+			appleCell = -1;
+			countOfEatenApples++;
+			pendingGrowth += FruitKind.APPLE.getValue();
+		}
+		if (next == orangeCell) {
+			orangeCell = -1;
+			countOfEatenOranges++;
+			pendingGrowth += FruitKind.ORANGE.getValue();
+		}
+		if (appleCell < 0) {
+			if (size == width * height) {
+				finishReason = FinishReason.WIN;
+				return false;
+			}
+			appleCell = randomFreeCell();
+		}
+		if (tickCount % ticksToGenerateOrange == 0 && nextDouble() < GameEngine.ORANGE_PROBABILITY) {
+			// the old orange is replaced, so its cell may be taken again
+			orangeCell = -1;
+			orangeCell = randomFreeCell();
+		}
+		return true;
+	}
+
+	/**
+	 * Copies every field but arrays
+	 *
+	 * @param other
+	 */
+	private void copyFields(GameState other) {
+		head = other.head;
+		size = other.size;
+		direction = other.direction;
+		pendingGrowth = other.pendingGrowth;
+		appleCell = other.appleCell;
+		orangeCell = other.orangeCell;
+		countOfEatenApples = other.countOfEatenApples;
+		countOfEatenOranges = other.countOfEatenOranges;
+		tickCount = other.tickCount;
+		finishReason = other.finishReason;
+		randomState = other.randomState;
+	}
+
+	/**
+	 * Adds a new head in front of the current one, the arrays must not be shared
+	 *
+	 * @param cell
+	 */
+	private void pushHead(int cell) {
+		if (size == cells.length) {
+			int[] grown = new int[Math.min(width * height, cells.length * 2)];
+			int firstPart = Math.min(size, cells.length - head);
+			System.arraycopy(cells, head, grown, 0, firstPart);
+			System.arraycopy(cells, 0, grown, firstPart, size - firstPart);
+			cells = grown;
+			head = 0;
+		}
+		head = head == 0 ? cells.length - 1 : head - 1;
+		cells[head] = cell;
+		size++;
+		words[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * Returns a uniformly random cell which is not occupied by the snake or a
+	 * fruit. Tries random cells, which is fast while a board is mostly free, and
+	 * falls back to counting
+	 *
+	 * @return a random free cell, -1 if every free cell holds a fruit
+	 */
+	private int randomFreeCell() {
+		int fruitCount = (appleCell >= 0 ? 1 : 0) + (orangeCell >= 0 ? 1 : 0);
+		int freeCount = width * height - size;
+		if (freeCount <= fruitCount) {
+			return -1;
+		}
+		int cell;
+		for (int i = 0; i < MAX_RANDOM_TRIES; i++) {
+			cell = nextInt(width * height);
+			if (!isOccupied(cell) && cell != appleCell && cell != orangeCell) {
+				return cell;
+			}
+		}
+		do {
+			cell = nthFreeCell(nextInt(freeCount));
+		} while (cell == appleCell || cell == orangeCell);
+		return cell;
+	}
+
+	/**
+	 * Returns {@code n}-th free cell in order of indices
+	 *
+	 * @param n - from 0 to count of free cells - 1
+	 * @return {@code n}-th free cell
+	 */
+	private int nthFreeCell(int n) {
+		for (int i = 0; i < words.length; i++) {
+			long free = ~words[i];
+			int count = Long.bitCount(free);
+			if (n < count) {
+				for (int j = 0; j < n; j++) {
+					free &= free - 1;
+				}
+				return (i << 6) + Long.numberOfTrailingZeros(free);
+			}
+			n -= count;
+		}
+		return -1;
+	}
+
+	/**
+	 * Next value of the random generator, SplitMix64
+	 *
+	 * @return random 64 bits
+	 */
+	private long nextLong() {
+		long z = randomState += 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Returns a random number from 0 to {@code bound - 1}
+	 *
+	 * @param bound - positive
+	 * @return a random number
+	 */
+	private int nextInt(int bound) {
+		return (int) (((nextLong() >>> 33) * bound) >>> 31);
+	}
+
+	/**
+	 * Returns a random number from 0 to 1
+	 *
+	 * @return a random number
+	 */
+	private double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+}
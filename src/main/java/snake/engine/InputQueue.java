@@ -0,0 +1,138 @@
+package snake.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of turns between one thread pressing keys and one
+ * thread running ticks. Every turn keeps the time its key was pressed, so the
+ * delay until a tick applies it can be measured. Offering and polling allocate
+ * nothing
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class InputQueue {
+	// =============== Constants ===============
+	/**
+	 * Default count of turns which may wait in the queue
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+	/**
+	 * Directions by their ordinals
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Ordinals of directions of turns
+	 */
+	private final byte[] directions;
+	/**
+	 * When keys of turns were pressed, by {@code System.nanoTime()}
+	 */
+	private final long[] pressedAt;
+	/**
+	 * {@code capacity - 1}, capacity is a power of two
+	 */
+	private final int mask;
+	/**
+	 * Count of offered turns, written only by the producer
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * Count of polled turns, written only by the consumer
+	 */
+	private final AtomicLong head = new AtomicLong();
+
+	// =============== Fields ===============
+	/**
+	 * Time of the last polled turn, read only by the consumer
+	 */
+	private long polledPressedAt;
+
+	// =============== Constructors ===============
+	public InputQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity - count of turns which may wait, rounded up to a power of
+	 *                 two
+	 */
+	public InputQueue(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Unsupported capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		directions = new byte[size];
+		pressedAt = new long[size];
+		mask = size - 1;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds a turn, called only by the producer thread
+	 *
+	 * @param direction
+	 * @param pressedAtNanos - when the key was pressed, by
+	 *                       {@code System.nanoTime()}
+	 * @return false if the queue is full and the turn is dropped
+	 */
+	public boolean offer(Direction direction, long pressedAtNanos) {
+		long currentTail = tail.get();
+		if (currentTail - head.get() > mask) {
+			return false;
+		}
+		int index = (int) currentTail & mask;
+		directions[index] = (byte) direction.ordinal();
+		pressedAt[index] = pressedAtNanos;
+		// publishes the element to the consumer
+		tail.lazySet(currentTail + 1);
+		return true;
+	}
+
+	/**
+	 * Takes the oldest turn, called only by the consumer thread
+	 *
+	 * @return direction of the turn, null if the queue is empty
+	 */
+	public Direction poll() {
+		long currentHead = head.get();
+		if (currentHead == tail.get()) {
+			return null;
+		}
+		int index = (int) currentHead & mask;
+		Direction direction = DIRECTIONS[directions[index]];
+		polledPressedAt = pressedAt[index];
+		// releases the slot to the producer
+		head.lazySet(currentHead + 1);
+		return direction;
+	}
+
+	/**
+	 * Returns when the key of the last polled turn was pressed
+	 *
+	 * @return time by {@code System.nanoTime()}
+	 */
+	public long getPolledPressedAt() {
+		return polledPressedAt;
+	}
+
+	/**
+	 * Returns count of waiting turns
+	 *
+	 * @return count of waiting turns
+	 */
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * Drops all waiting turns, called only by the consumer thread or while no
+	 * thread polls
+	 */
+	public void clear() {
+		head.lazySet(tail.get());
+	}
+}
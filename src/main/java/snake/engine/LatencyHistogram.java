@@ -0,0 +1,143 @@
+package snake.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds. Every power of two is split into 8
+ * buckets, so a percentile is off by less than 12.5%. Recording is lock-free
+ * and allocates nothing, so it may be called on every tick from any thread
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class LatencyHistogram {
+	// =============== Constants ===============
+	/**
+	 * Buckets per power of two, as a power of two
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+	/**
+	 * Buckets per power of two
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Count of values by buckets
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+	/**
+	 * Count of values
+	 */
+	private final AtomicLong count = new AtomicLong();
+	/**
+	 * Sum of values
+	 */
+	private final AtomicLong sum = new AtomicLong();
+	/**
+	 * Maximal value
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	// =============== Methods ===============
+	/**
+	 * Adds a value, negative values are counted as 0
+	 *
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long currentMax;
+		while (value > (currentMax = max.get())) {
+			if (max.compareAndSet(currentMax, value)) {
+				break;
+			}
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns average value
+	 *
+	 * @return average value, 0 if there are no values
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * Returns a value which is not less than {@code percentile} percents of values
+	 *
+	 * @param percentile - from 0 to 100
+	 * @return upper bound of the bucket with the percentile, 0 if there are no
+	 *         values
+	 */
+	public long getPercentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Removes all values
+	 */
+	public void reset() {
+		for (int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Returns the bucket of a non-negative value
+	 *
+	 * @param value
+	 * @return index of a bucket
+	 */
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int highestBit = 63 - Long.numberOfLeadingZeros(value);
+		int shift = highestBit - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest value of a bucket
+	 *
+	 * @param bucket
+	 * @return the largest value of a bucket
+	 */
+	private static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+}
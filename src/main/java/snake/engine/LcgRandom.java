@@ -0,0 +1,65 @@
+package snake.engine;
+
+import java.util.Random;
+
+/**
+ * The same generator as {@code java.util.Random}, so a seed gives the same
+ * numbers, whose state can be read and restored. {@code nextGaussian()} is not
+ * a part of the state. Not thread-safe
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+final class LcgRandom extends Random {
+	// =============== Constants ===============
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Multiplier of {@code java.util.Random}
+	 */
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Addend of {@code java.util.Random}
+	 */
+	private static final long ADDEND = 0xBL;
+	/**
+	 * The state has 48 bits
+	 */
+	private static final long MASK = (1L << 48) - 1;
+
+	// =============== Fields ===============
+	/**
+	 * State of the generator, set by the constructor of {@code Random}
+	 */
+	private long state;
+
+	// =============== Get/Set ===============
+	/**
+	 * Returns the state, which gives the same next numbers when restored
+	 *
+	 * @return 48 bits of the state
+	 */
+	long getState() {
+		return state;
+	}
+
+	/**
+	 * Restores a state returned by {@code getState()}
+	 *
+	 * @param state
+	 */
+	void setState(long state) {
+		this.state = state & MASK;
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	// =============== Methods ===============
+	@Override
+	protected int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+}
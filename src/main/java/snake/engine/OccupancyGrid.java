@@ -0,0 +1,220 @@
+package snake.engine;
+
+import java.util.Random;
+
+/**
+ * Occupied cells of a board, one bit per cell. A cell is occupied while a part
+ * of a snake is on it, so checks like "is this cell free" are single lookups.
+ * Free cells of boards up to {@code MAX_INDEXED_CELLS} are also kept in
+ * {@code FreeCellIndex} for uniform random picks, bigger boards are sampled
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class OccupancyGrid {
+	// =============== Constants ===============
+	/**
+	 * Maximal count of cells of a board which has {@code FreeCellIndex}, the index
+	 * takes 8 bytes per cell
+	 */
+	public static final int MAX_INDEXED_CELLS = 1 << 22;
+	/**
+	 * How many random cells are tried on a board without an index before looking
+	 * for a free cell by counting
+	 */
+	private static final int MAX_RANDOM_TRIES = 32;
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * Bits of cells, cell {@code i} is bit {@code i % 64} of word {@code i / 64}
+	 */
+	private final long[] words;
+	/**
+	 * Free cells of a board, null if a board is bigger than
+	 * {@code MAX_INDEXED_CELLS}
+	 */
+	private final FreeCellIndex freeCells;
+
+	// =============== Fields ===============
+	/**
+	 * Count of occupied cells
+	 */
+	private int occupiedCount;
+
+	// =============== Constructors ===============
+	public OccupancyGrid(int width, int height) {
+		this.width = width;
+		this.height = height;
+		words = new long[(width * height + 63) >>> 6];
+		freeCells = width * height <= MAX_INDEXED_CELLS ? new FreeCellIndex(width * height) : null;
+	}
+
+	// =============== Get/Set ===============
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns count of cells of a board
+	 *
+	 * @return count of cells of a board
+	 */
+	public int size() {
+		return width * height;
+	}
+
+	public int getOccupiedCount() {
+		return occupiedCount;
+	}
+
+	public int getFreeCount() {
+		return size() - occupiedCount;
+	}
+
+	/**
+	 * Returns index of free cells. The index must not be changed from outside
+	 *
+	 * @return index of free cells, null if a board is too big to be indexed
+	 */
+	public FreeCellIndex getFreeCells() {
+		return freeCells;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Checks if (x,y) is within borders of a board
+	 *
+	 * @param x
+	 * @param y
+	 * @return true if (x,y) is within borders
+	 */
+	public boolean isInside(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Checks if a snake can move on (x,y)
+	 *
+	 * @param x
+	 * @param y
+	 * @return true if (x,y) is within borders and is not occupied
+	 */
+	public boolean isFree(int x, int y) {
+		return isInside(x, y) && !isOccupied(y * width + x);
+	}
+
+	/**
+	 * Checks if a cell is occupied
+	 *
+	 * @param cell
+	 * @return true if the cell is occupied
+	 */
+	public boolean isOccupied(int cell) {
+		return (words[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Marks a cell as occupied
+	 *
+	 * @param cell
+	 */
+	public void occupy(int cell) {
+		long bit = 1L << cell;
+		if ((words[cell >>> 6] & bit) == 0) {
+			words[cell >>> 6] |= bit;
+			occupiedCount++;
+			if (freeCells != null) {
+				freeCells.remove(cell);
+			}
+		}
+	}
+
+	/**
+	 * Marks a cell as free
+	 *
+	 * @param cell
+	 */
+	public void release(int cell) {
+		long bit = 1L << cell;
+		if ((words[cell >>> 6] & bit) != 0) {
+			words[cell >>> 6] &= ~bit;
+			occupiedCount--;
+			if (freeCells != null) {
+				freeCells.add(cell);
+			}
+		}
+	}
+
+	/**
+	 * Marks all cells as free
+	 */
+	public void clear() {
+		for (int i = 0; i < words.length; i++) {
+			words[i] = 0;
+		}
+		occupiedCount = 0;
+		if (freeCells != null) {
+			freeCells.clear();
+		}
+	}
+
+	/**
+	 * Returns a uniformly random free cell. Uses the index if a board has it,
+	 * otherwise tries random cells, which is fast while a board is mostly free, and
+	 * falls back to counting
+	 *
+	 * @param random
+	 * @return a random free cell, -1 if there is no free cell
+	 */
+	public int randomFreeCell(Random random) {
+		int freeCount = getFreeCount();
+		if (freeCount == 0) {
+			return -1;
+		}
+		if (freeCells != null) {
+			return freeCells.get(random.nextInt(freeCount));
+		}
+		for (int i = 0; i < MAX_RANDOM_TRIES; i++) {
+			int cell = random.nextInt(size());
+			if (!isOccupied(cell)) {
+				return cell;
+			}
+		}
+		return nthFreeCell(random.nextInt(freeCount));
+	}
+
+	/**
+	 * Returns {@code n}-th free cell in order of indices. Whole words of 64 cells
+	 * are skipped at once
+	 *
+	 * @param n - from 0 to {@code getFreeCount() - 1}
+	 * @return {@code n}-th free cell, -1 if there are not so many free cells
+	 */
+	public int nthFreeCell(int n) {
+		if (n < 0 || n >= getFreeCount()) {
+			return -1;
+		}
+		for (int i = 0; i < words.length; i++) {
+			long free = ~words[i];
+			int count = Long.bitCount(free);
+			if (n < count) {
+				for (int j = 0; j < n; j++) {
+					free &= free - 1;
+				}
+				return (i << 6) + Long.numberOfTrailingZeros(free);
+			}
+			n -= count;
+		}
+		return -1;
+	}
+}
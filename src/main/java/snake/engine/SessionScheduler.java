@@ -0,0 +1,111 @@
+package snake.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import snake.interfaces.ITickScheduler;
+
+/**
+ * Runs ticks of many games with a fixed count of threads: one thread turns a
+ * {@code TimingWheel} with deadlines of all games and a small pool of workers
+ * runs expired ticks. A game gets its ticks from {@code newTickScheduler},
+ * unlike {@code TickScheduler} which has a thread per game
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class SessionScheduler {
+	// =============== Constants ===============
+	/**
+	 * Duration of a slot of the wheel in milliseconds, the precision of ticks
+	 */
+	public static final int RESOLUTION_MILLIS = 1;
+	/**
+	 * Count of slots of the wheel, covers a second at the default resolution
+	 */
+	public static final int SLOT_COUNT = 1024;
+	/**
+	 * Workers running ticks
+	 */
+	private final ExecutorService workers;
+	/**
+	 * Wheel with deadlines of ticks
+	 */
+	private final TimingWheel wheel;
+	/**
+	 * Count of workers
+	 */
+	private final int workerCount;
+	/**
+	 * Scheduler shared by games of the process, null until it is used
+	 */
+	private static volatile SessionScheduler defaultScheduler;
+
+	// =============== Constructors ===============
+	/**
+	 * Starts the wheel and the workers
+	 *
+	 * @param workerCount - count of threads running ticks
+	 */
+	public SessionScheduler(int workerCount) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Count of workers must be positive: " + workerCount);
+		}
+		this.workerCount = workerCount;
+		AtomicInteger threadNumber = new AtomicInteger();
+		workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "snake-worker-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		wheel = new TimingWheel(RESOLUTION_MILLIS, TimeUnit.MILLISECONDS, SLOT_COUNT, workers);
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Returns the scheduler with a worker per processor shared by games of the
+	 * process
+	 *
+	 * @return the default scheduler
+	 */
+	public static SessionScheduler getDefault() {
+		SessionScheduler scheduler = defaultScheduler;
+		if (scheduler == null) {
+			synchronized (SessionScheduler.class) {
+				scheduler = defaultScheduler;
+				if (scheduler == null) {
+					scheduler = new SessionScheduler(Runtime.getRuntime().availableProcessors());
+					defaultScheduler = scheduler;
+				}
+			}
+		}
+		return scheduler;
+	}
+
+	public int getWorkerCount() {
+		return workerCount;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Creates a scheduler of ticks of one game running on this wheel and workers
+	 *
+	 * @param ticksPerSecond - from 1 to {@code TickScheduler.MAX_TICKS_PER_SECOND}
+	 * @return a stopped scheduler
+	 */
+	public ITickScheduler newTickScheduler(int ticksPerSecond) {
+		return new WheelTickScheduler(wheel, ticksPerSecond);
+	}
+
+	/**
+	 * Stops the wheel and the workers, scheduled ticks are dropped
+	 */
+	public void shutdown() {
+		wheel.shutdown();
+		workers.shutdown();
+	}
+}
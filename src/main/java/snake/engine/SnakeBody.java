@@ -0,0 +1,164 @@
+package snake.engine;
+
+/**
+ * Cells of a snake stored in a circular array. Moving a snake is "push head,
+ * pop tail", so a move costs the same for a snake of any length. Every cell of
+ * a snake is marked in {@code OccupancyGrid}. The array grows with a snake, so
+ * a short snake on a huge board takes little memory
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class SnakeBody {
+	// =============== Constants ===============
+	/**
+	 * Initial length of {@code cells}
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+	/**
+	 * Grid where cells of a snake are marked
+	 */
+	private final OccupancyGrid grid;
+	/**
+	 * Maximal length of a snake
+	 */
+	private final int capacity;
+
+	// =============== Fields ===============
+	/**
+	 * Circular buffer of cells
+	 */
+	private int[] cells;
+	/**
+	 * Index of the head in {@code cells}
+	 */
+	private int head;
+	/**
+	 * Count of cells of a snake
+	 */
+	private int size;
+
+	// =============== Constructors ===============
+	/**
+	 * @param grid - grid of a board, where the snake is going to move
+	 */
+	public SnakeBody(OccupancyGrid grid) {
+		this.grid = grid;
+		capacity = grid.size();
+		cells = new int[Math.min(capacity, INITIAL_CAPACITY)];
+	}
+
+	// =============== Methods ===============
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public OccupancyGrid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Returns cell of the head
+	 *
+	 * @return cell of the head
+	 */
+	public int head() {
+		return cells[head];
+	}
+
+	/**
+	 * Returns cell of the tail
+	 *
+	 * @return cell of the tail
+	 */
+	public int tail() {
+		return get(size - 1);
+	}
+
+	/**
+	 * Returns {@code i}-th cell counting from the head
+	 *
+	 * @param i - 0 for the head, {@code size() - 1} for the tail
+	 * @return {@code i}-th cell
+	 */
+	public int get(int i) {
+		int index = head + i;
+		if (index >= cells.length) {
+			index -= cells.length;
+		}
+		return cells[index];
+	}
+
+	/**
+	 * Adds a new head in front of the current one
+	 *
+	 * @param cell
+	 */
+	public void pushHead(int cell) {
+		if (size == cells.length) {
+			grow();
+		}
+		head = head == 0 ? cells.length - 1 : head - 1;
+		cells[head] = cell;
+		size++;
+		grid.occupy(cell);
+	}
+
+	/**
+	 * Adds a new tail behind the current one, so a snake can be rebuilt from the
+	 * head
+	 *
+	 * @param cell
+	 */
+	public void pushTail(int cell) {
+		if (size == cells.length) {
+			grow();
+		}
+		int index = head + size;
+		cells[index >= cells.length ? index - cells.length : index] = cell;
+		size++;
+		grid.occupy(cell);
+	}
+
+	/**
+	 * Removes the tail
+	 *
+	 * @return released cell
+	 */
+	public int popTail() {
+		int cell = tail();
+		size--;
+		grid.release(cell);
+		return cell;
+	}
+
+	/**
+	 * Doubles the length of {@code cells}, the head is moved to index 0
+	 */
+	private void grow() {
+		if (cells.length == capacity) {
+			throw new IllegalStateException("Snake is longer than the board");
+		}
+		int[] grown = new int[(int) Math.min(capacity, cells.length * 2L)];
+		int firstPart = Math.min(size, cells.length - head);
+		System.arraycopy(cells, head, grown, 0, firstPart);
+		System.arraycopy(cells, 0, grown, firstPart, size - firstPart);
+		cells = grown;
+		head = 0;
+	}
+
+	/**
+	 * Removes all cells
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			grid.release(get(i));
+		}
+		head = 0;
+		size = 0;
+	}
+}
@@ -13,15 +13,29 @@ class Stopwatch {
 	 */
 	private long startingTime;
 	/**
-	 * Duration of a turn in minutes
+	 * Duration of a stopped turn in milliseconds
 	 */
-	private int timeMinutes;
+	private long elapsedMillis;
+	/**
+	 * Flag showing that the countdown is going
+	 */
+	private boolean isRunning;
 
 	/**
 	 * The method starts the countdown
 	 */
 	void start() {
-		startingTime = getCurrentTimeMillis();
+		resume(0);
+	}
+
+	/**
+	 * The method continues the countdown of a restored turn
+	 * 
+	 * @param elapsedMillis - how long the turn has already lasted
+	 */
+	void resume(long elapsedMillis) {
+		startingTime = getCurrentTimeMillis() - elapsedMillis;
+		isRunning = true;
 	}
 
 	/**
@@ -38,7 +52,17 @@ class Stopwatch {
 	 * Sets a turn's ending time
 	 */
 	void stop() {
-		timeMinutes = (int) ((getCurrentTimeMillis() - startingTime) / 60000);
+		elapsedMillis = getCurrentTimeMillis() - startingTime;
+		isRunning = false;
+	}
+
+	/**
+	 * Returns duration of a turn so far
+	 * 
+	 * @return duration in milliseconds
+	 */
+	long getElapsedMillis() {
+		return isRunning ? getCurrentTimeMillis() - startingTime : elapsedMillis;
 	}
 
 	/**
@@ -47,6 +71,6 @@ class Stopwatch {
 	 * @return duration in minutes
 	 */
 	int getTimeMinutes() {
-		return timeMinutes;
+		return (int) (getElapsedMillis() / 60000);
 	}
 }
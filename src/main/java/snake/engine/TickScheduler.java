@@ -0,0 +1,164 @@
+package snake.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import snake.interfaces.ITickScheduler;
+
+/**
+ * Runs ticks of a game on its own thread with a fixed timestep. Deadlines are
+ * counted from the start with {@code System.nanoTime()}, so the time spent in a
+ * tick does not shift the following ones, and late ticks are caught up. Only
+ * one thread is running at a time: starting the scheduler again stops and
+ * waits for the previous thread
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class TickScheduler implements ITickScheduler {
+	// =============== Constants ===============
+	/**
+	 * Maximal supported tick rate
+	 */
+	public static final int MAX_TICKS_PER_SECOND = 10_000;
+	/**
+	 * How many late ticks are run in a row before the schedule is shifted
+	 */
+	private static final int MAX_CATCH_UP_TICKS = 5;
+
+	// =============== Fields ===============
+	/**
+	 * Duration of a tick in nanoseconds
+	 */
+	private volatile long periodNanos;
+	/**
+	 * Thread running ticks, null if the scheduler is stopped
+	 */
+	private Thread thread;
+	/**
+	 * Where timings of ticks are recorded, null if they are not recorded
+	 */
+	private volatile GameMetrics metrics;
+
+	// =============== Constructors ===============
+	public TickScheduler(int ticksPerSecond) {
+		setTicksPerSecond(ticksPerSecond);
+	}
+
+	// =============== Get/Set ===============
+	@Override
+	public int getTicksPerSecond() {
+		return (int) (TimeUnit.SECONDS.toNanos(1) / periodNanos);
+	}
+
+	/**
+	 * Changes the tick rate, a running scheduler applies it from the next tick
+	 *
+	 * @param ticksPerSecond - from 1 to {@code MAX_TICKS_PER_SECOND}
+	 */
+	@Override
+	public void setTicksPerSecond(int ticksPerSecond) {
+		if (ticksPerSecond < 1 || ticksPerSecond > MAX_TICKS_PER_SECOND) {
+			throw new IllegalArgumentException("Unsupported tick rate: " + ticksPerSecond);
+		}
+		periodNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+	}
+
+	/**
+	 * Sets where timings of ticks are recorded
+	 *
+	 * @param metrics - null to stop recording
+	 */
+	@Override
+	public void setMetrics(GameMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Starts calling {@code tick} until it returns false or the scheduler is
+	 * stopped. A previously started thread is stopped first
+	 *
+	 * @param tick - returns true while ticks are needed
+	 */
+	@Override
+	public synchronized void start(BooleanSupplier tick) {
+		stop();
+		thread = new Thread(() -> run(tick), "snake-ticks");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the thread and waits until it exits. Does not wait when called from
+	 * the thread itself
+	 */
+	@Override
+	public synchronized void stop() {
+		Thread current = thread;
+		thread = null;
+		if (current == null) {
+			return;
+		}
+		current.interrupt();
+		if (current != Thread.currentThread()) {
+			boolean interrupted = false;
+			while (current.isAlive()) {
+				try {
+					current.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Checks if ticks are running
+	 *
+	 * @return true if the thread is alive
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return thread != null && thread.isAlive();
+	}
+
+	/**
+	 * Loop of the thread
+	 *
+	 * @param tick
+	 */
+	private void run(BooleanSupplier tick) {
+		long deadline = System.nanoTime() + periodNanos;
+		while (!Thread.currentThread().isInterrupted()) {
+			long now = System.nanoTime();
+			if (now < deadline) {
+				LockSupport.parkNanos(this, deadline - now);
+				continue;
+			}
+			int caughtUp = 0;
+			while (now >= deadline && caughtUp < MAX_CATCH_UP_TICKS) {
+				boolean isNeeded = tick.getAsBoolean();
+				long finished = System.nanoTime();
+				GameMetrics currentMetrics = metrics;
+				if (currentMetrics != null) {
+					currentMetrics.tickFinished(now - deadline, finished - now);
+				}
+				if (!isNeeded) {
+					return;
+				}
+				deadline += periodNanos;
+				caughtUp++;
+				now = finished;
+			}
+			if (now >= deadline) {
+				// too late to catch up, continue from now on
+				deadline = now + periodNanos;
+			}
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package snake.engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel: one thread keeps timeouts of any count in a ring of
+ * slots, one slot per {@code resolution}, and hands expired ones to an
+ * executor. Scheduling and cancelling a timeout cost the same whatever the
+ * count of timeouts is, a timeout further than a turn of the wheel waits for
+ * several turns in its slot
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class TimingWheel {
+	// =============== Constants ===============
+	/**
+	 * Duration of a slot in nanoseconds
+	 */
+	private final long resolutionNanos;
+	/**
+	 * {@code slots.length - 1}, count of slots is a power of two
+	 */
+	private final int mask;
+	/**
+	 * First timeout of every slot, timeouts of a slot are linked
+	 */
+	private final Timeout[] slots;
+	/**
+	 * Timeouts scheduled by any thread, moved to slots by the thread of the wheel
+	 */
+	private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+	/**
+	 * Runs tasks of expired timeouts
+	 */
+	private final Executor executor;
+	/**
+	 * Thread turning the wheel
+	 */
+	private final Thread thread;
+	/**
+	 * Time of the start of the wheel, by {@code System.nanoTime()}
+	 */
+	private final long startTime;
+
+	// =============== Fields ===============
+	/**
+	 * Count of passed slots, used only by the thread of the wheel
+	 */
+	private long tick;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a wheel and starts its thread
+	 *
+	 * @param resolution - duration of a slot
+	 * @param unit       - unit of {@code resolution}
+	 * @param slotCount  - count of slots, rounded up to a power of two
+	 * @param executor   - runs tasks of expired timeouts, must not block
+	 */
+	public TimingWheel(long resolution, TimeUnit unit, int slotCount, Executor executor) {
+		if (resolution <= 0) {
+			throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+		}
+		if (slotCount < 1 || slotCount > 1 << 20) {
+			throw new IllegalArgumentException("Unsupported count of slots: " + slotCount);
+		}
+		int size = Integer.highestOneBit(slotCount);
+		if (size < slotCount) {
+			size <<= 1;
+		}
+		resolutionNanos = unit.toNanos(resolution);
+		mask = size - 1;
+		slots = new Timeout[size];
+		this.executor = executor;
+		startTime = System.nanoTime();
+		thread = new Thread(this::run, "snake-wheel");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	// =============== Get/Set ===============
+	public long getResolutionNanos() {
+		return resolutionNanos;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Schedules a task, it is passed to the executor at the first end of a slot
+	 * at or after {@code deadline}. A deadline in the past is run at the end of
+	 * the current slot
+	 *
+	 * @param task     - what to run
+	 * @param deadline - when to run, by {@code System.nanoTime()}
+	 * @return timeout which can be cancelled
+	 */
+	public Timeout schedule(Runnable task, long deadline) {
+		Timeout timeout = new Timeout(task, deadline);
+		added.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Stops the thread of the wheel, pending timeouts are dropped. The executor
+	 * is not shut down
+	 */
+	public void shutdown() {
+		thread.interrupt();
+	}
+
+	/**
+	 * Loop of the thread
+	 */
+	private void run() {
+		while (!Thread.currentThread().isInterrupted()) {
+			long slotEnd = startTime + (tick + 1) * resolutionNanos;
+			long now = System.nanoTime();
+			if (now < slotEnd) {
+				LockSupport.parkNanos(this, slotEnd - now);
+				continue;
+			}
+			transferAdded();
+			expire(slots[(int) tick & mask]);
+			tick++;
+		}
+	}
+
+	/**
+	 * Moves scheduled timeouts to their slots
+	 */
+	private void transferAdded() {
+		Timeout timeout;
+		while ((timeout = added.poll()) != null) {
+			if (timeout.isCancelled) {
+				continue;
+			}
+			// ceiling, so a timeout never expires before its deadline
+			long target = Math.max(tick, (timeout.deadline - startTime + resolutionNanos - 1) / resolutionNanos - 1);
+			timeout.remainingRounds = (target - tick) / slots.length;
+			int index = (int) target & mask;
+			timeout.next = slots[index];
+			slots[index] = timeout;
+		}
+	}
+
+	/**
+	 * Runs expired timeouts of a slot, drops cancelled ones and counts down
+	 * rounds of the rest
+	 *
+	 * @param first - first timeout of the slot
+	 */
+	private void expire(Timeout first) {
+		int index = (int) tick & mask;
+		Timeout previous = null;
+		Timeout timeout = first;
+		while (timeout != null) {
+			Timeout next = timeout.next;
+			if (timeout.isCancelled || timeout.remainingRounds <= 0) {
+				if (previous == null) {
+					slots[index] = next;
+				} else {
+					previous.next = next;
+				}
+				timeout.next = null;
+				if (!timeout.isCancelled) {
+					try {
+						executor.execute(timeout.task);
+					} catch (RejectedExecutionException e) {
+						// the executor is shut down, so is the wheel
+						thread.interrupt();
+						return;
+					}
+				}
+			} else {
+				timeout.remainingRounds--;
+				previous = timeout;
+			}
+			timeout = next;
+		}
+	}
+
+	/**
+	 * A scheduled task
+	 */
+	public static final class Timeout {
+		/**
+		 * What to run
+		 */
+		private final Runnable task;
+		/**
+		 * When to run, by {@code System.nanoTime()}
+		 */
+		private final long deadline;
+		/**
+		 * Flag showing that the task must not run
+		 */
+		private volatile boolean isCancelled;
+		/**
+		 * Count of turns of the wheel left, used by its thread
+		 */
+		private long remainingRounds;
+		/**
+		 * Next timeout of the same slot, used by the thread of the wheel
+		 */
+		private Timeout next;
+
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		public long getDeadline() {
+			return deadline;
+		}
+
+		/**
+		 * Prevents the task from running if it has not run yet
+		 */
+		public void cancel() {
+			isCancelled = true;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package snake.engine;
+
+/**
+ * Visible part of a board following snake's head. Translates diffs of the
+ * whole board to diffs of the visible cells, so a GUI only deals with cells it
+ * shows whatever the size of a board is. Cells of a translated diff are indexed
+ * {@code y * getWidth() + x} relative to the top left corner of the viewport
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class Viewport implements FrameDiff.Handler {
+	// =============== Constants ===============
+	/**
+	 * Width of a board in cells
+	 */
+	private final int boardWidth;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int boardHeight;
+	/**
+	 * Width of the viewport in cells
+	 */
+	private final int width;
+	/**
+	 * Height of the viewport in cells
+	 */
+	private final int height;
+	/**
+	 * Changes of visible cells
+	 */
+	private final FrameDiff visible = new FrameDiff();
+
+	// =============== Fields ===============
+	/**
+	 * Column of a board shown in the left column of the viewport
+	 */
+	private int originX;
+	/**
+	 * Row of a board shown in the top row of the viewport
+	 */
+	private int originY;
+	/**
+	 * Flag showing that all visible cells must be sent with the next diff
+	 */
+	private boolean isRefreshNeeded = true;
+
+	// =============== Constructors ===============
+	/**
+	 * @param boardWidth  - width of a board in cells
+	 * @param boardHeight - height of a board in cells
+	 * @param width       - maximal width of the viewport in cells
+	 * @param height      - maximal height of the viewport in cells
+	 */
+	public Viewport(int boardWidth, int boardHeight, int width, int height) {
+		this.boardWidth = boardWidth;
+		this.boardHeight = boardHeight;
+		this.width = Math.min(width, boardWidth);
+		this.height = Math.min(height, boardHeight);
+	}
+
+	// =============== Get/Set ===============
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getOriginX() {
+		return originX;
+	}
+
+	public int getOriginY() {
+		return originY;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Makes the next translated diff contain all visible cells, should be called
+	 * when a GUI is cleared
+	 */
+	public void reset() {
+		isRefreshNeeded = true;
+	}
+
+	/**
+	 * Moves the viewport after snake's head and returns changes of visible cells.
+	 * If the viewport has moved, all visible cells are taken from {@code engine}
+	 *
+	 * @param diff   - changes of a board
+	 * @param engine - the game {@code diff} comes from, must not be changed
+	 *               during the call
+	 * @return changes of visible cells, reused by the next call
+	 */
+	public FrameDiff translate(FrameDiff diff, GameEngine engine) {
+		visible.clear();
+		if (follow(engine.getHeadX(), engine.getHeadY()) || isRefreshNeeded) {
+			isRefreshNeeded = false;
+			refresh(engine, diff);
+		} else {
+			diff.forEach(this);
+		}
+		return visible;
+	}
+
+	@Override
+	public void set(int cell, CellContent content) {
+		int viewCell = toViewCell(cell);
+		if (viewCell >= 0) {
+			visible.set(viewCell, content);
+		}
+	}
+
+	@Override
+	public void move(int from, int to) {
+		int viewFrom = toViewCell(from);
+		int viewTo = toViewCell(to);
+		if (viewFrom >= 0 && viewTo >= 0) {
+			visible.move(viewFrom, viewTo);
+		} else if (viewFrom >= 0) {
+			visible.set(viewFrom, CellContent.EMPTY);
+		} else if (viewTo >= 0) {
+			visible.set(viewTo, CellContent.BODY);
+		}
+	}
+
+	/**
+	 * Adds all visible cells to {@code visible}, then crashes from {@code diff},
+	 * since they are not a part of a game state
+	 *
+	 * @param engine
+	 * @param diff
+	 */
+	private void refresh(GameEngine engine, FrameDiff diff) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				visible.set(y * width + x, engine.getContent((originY + y) * boardWidth + originX + x));
+			}
+		}
+		diff.forEach(new FrameDiff.Handler() {
+			@Override
+			public void set(int cell, CellContent content) {
+				if (content == CellContent.CRASH) {
+					Viewport.this.set(cell, content);
+				}
+			}
+
+			@Override
+			public void move(int from, int to) {
+			}
+		});
+	}
+
+	/**
+	 * Moves the viewport if (x,y) is closer to its edge than a quarter of its size
+	 *
+	 * @param x - column of snake's head
+	 * @param y - row of snake's head
+	 * @return true if the viewport has moved
+	 */
+	private boolean follow(int x, int y) {
+		int newOriginX = originX;
+		int newOriginY = originY;
+		if (x < originX + width / 4 || x >= originX + width - width / 4) {
+			newOriginX = clamp(x - width / 2, boardWidth - width);
+		}
+		if (y < originY + height / 4 || y >= originY + height - height / 4) {
+			newOriginY = clamp(y - height / 2, boardHeight - height);
+		}
+		boolean hasMoved = newOriginX != originX || newOriginY != originY;
+		originX = newOriginX;
+		originY = newOriginY;
+		return hasMoved;
+	}
+
+	/**
+	 * Returns {@code value} limited to [0, max]
+	 *
+	 * @param value
+	 * @param max
+	 * @return limited value
+	 */
+	private static int clamp(int value, int max) {
+		return Math.max(0, Math.min(value, max));
+	}
+
+	/**
+	 * Converts a cell of a board to a cell of the viewport
+	 *
+	 * @param cell
+	 * @return cell of the viewport, -1 if the cell is not visible
+	 */
+	private int toViewCell(int cell) {
+		int x = cell % boardWidth - originX;
+		int y = cell / boardWidth - originY;
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return -1;
+		}
+		return y * width + x;
+	}
+}
@@ -0,0 +1,184 @@
+package snake.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import snake.interfaces.ITickScheduler;
+
+/**
+ * Ticks of one game run by a {@code SessionScheduler}. A tick is a timeout of
+ * the shared wheel, the next one is scheduled when the previous one returns, so
+ * ticks of a game never overlap while games share a few worker threads.
+ * Deadlines are counted from the start like in {@code TickScheduler}
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+final class WheelTickScheduler implements ITickScheduler {
+	// =============== Constants ===============
+	/**
+	 * How many periods a tick may be late before the schedule is shifted
+	 */
+	private static final int MAX_CATCH_UP_TICKS = 5;
+	/**
+	 * Wheel running timeouts of ticks
+	 */
+	private final TimingWheel wheel;
+
+	// =============== Fields ===============
+	/**
+	 * Duration of a tick in nanoseconds
+	 */
+	private volatile long periodNanos;
+	/**
+	 * Where timings of ticks are recorded, null if they are not recorded
+	 */
+	private volatile GameMetrics metrics;
+	/**
+	 * What is called every tick, null if the scheduler is stopped. Fields below
+	 * are guarded by {@code this}
+	 */
+	private BooleanSupplier tick;
+	/**
+	 * Changed by every start and stop, so a timeout of previous ticks does
+	 * nothing
+	 */
+	private long generation;
+	/**
+	 * Timeout of the next tick
+	 */
+	private TimingWheel.Timeout timeout;
+	/**
+	 * Deadline of the next tick, by {@code System.nanoTime()}
+	 */
+	private long deadline;
+	/**
+	 * Thread running a tick now, null between ticks
+	 */
+	private Thread tickThread;
+
+	// =============== Constructors ===============
+	/**
+	 * @param wheel          - wheel running timeouts of ticks
+	 * @param ticksPerSecond
+	 */
+	WheelTickScheduler(TimingWheel wheel, int ticksPerSecond) {
+		this.wheel = wheel;
+		setTicksPerSecond(ticksPerSecond);
+	}
+
+	// =============== Get/Set ===============
+	@Override
+	public int getTicksPerSecond() {
+		return (int) (TimeUnit.SECONDS.toNanos(1) / periodNanos);
+	}
+
+	/**
+	 * Changes the tick rate, a running scheduler applies it from the next tick
+	 *
+	 * @param ticksPerSecond - from 1 to {@code TickScheduler.MAX_TICKS_PER_SECOND}
+	 */
+	@Override
+	public void setTicksPerSecond(int ticksPerSecond) {
+		if (ticksPerSecond < 1 || ticksPerSecond > TickScheduler.MAX_TICKS_PER_SECOND) {
+			throw new IllegalArgumentException("Unsupported tick rate: " + ticksPerSecond);
+		}
+		periodNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+	}
+
+	@Override
+	public void setMetrics(GameMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public synchronized void start(BooleanSupplier tick) {
+		stop();
+		this.tick = tick;
+		deadline = System.nanoTime() + periodNanos;
+		schedule();
+	}
+
+	@Override
+	public synchronized void stop() {
+		generation++;
+		tick = null;
+		if (timeout != null) {
+			timeout.cancel();
+			timeout = null;
+		}
+		boolean interrupted = false;
+		while (tickThread != null && tickThread != Thread.currentThread()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return tick != null;
+	}
+
+	/**
+	 * Schedules the next tick at {@code deadline}, must be called holding
+	 * {@code this}
+	 */
+	private void schedule() {
+		long scheduled = generation;
+		timeout = wheel.schedule(() -> run(scheduled), deadline);
+	}
+
+	/**
+	 * Runs a tick on a worker thread and schedules the next one
+	 *
+	 * @param scheduled - generation the tick was scheduled by
+	 */
+	private void run(long scheduled) {
+		BooleanSupplier current;
+		long tickDeadline;
+		synchronized (this) {
+			if (scheduled != generation) {
+				return;
+			}
+			current = tick;
+			tickDeadline = deadline;
+			tickThread = Thread.currentThread();
+		}
+		long now = System.nanoTime();
+		boolean isNeeded = false;
+		try {
+			isNeeded = current.getAsBoolean();
+		} finally {
+			long finished = System.nanoTime();
+			GameMetrics currentMetrics = metrics;
+			if (currentMetrics != null) {
+				currentMetrics.tickFinished(now - tickDeadline, finished - now);
+			}
+			synchronized (this) {
+				tickThread = null;
+				notifyAll();
+				if (scheduled == generation) {
+					if (isNeeded) {
+						deadline += periodNanos;
+						if (finished - deadline > MAX_CATCH_UP_TICKS * periodNanos) {
+							// too late to catch up, continue from now on
+							deadline = finished + periodNanos;
+						}
+						schedule();
+					} else {
+						generation++;
+						tick = null;
+						timeout = null;
+					}
+				}
+			}
+		}
+	}
+}
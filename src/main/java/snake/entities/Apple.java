@@ -1,6 +1,7 @@
 package snake.entities;
 
 import javafx.scene.paint.Color;
+import snake.engine.FruitKind;
 
 /**
  * Сlass represents an apple
@@ -9,9 +10,15 @@ import javafx.scene.paint.Color;
  * 
  */
 public final class Apple extends Fruit {
+	// =============== Constants ===============
+	/**
+	 * Color of apples
+	 */
+	public static final Color COLOR = Color.rgb(17, 255, 0);
+
 	// =============== Constructor ===============
 	public Apple(double x, double y) {
-		super(x, y, Color.rgb(17, 255, 0));
+		super(x, y, COLOR);
 	}
 
 	// =============== Methods ===============
@@ -21,6 +28,6 @@ public final class Apple extends Fruit {
 	 * @return value of an apple
 	 */
 	public static int getValue() {
-		return 1;
+		return FruitKind.APPLE.getValue();
 	}
 }
\ No newline at end of file
@@ -9,48 +9,19 @@ public abstract class Cell extends Rectangle {
 	 * The size of each sell's side
 	 */
 	public static final int SIZE = 20;
-
-	// =============== Fields ===============
-	/**
-	 * Previous x coordinate
-	 */
-	protected double previousXCoordinate;
 	/**
-	 * Previous y coordinate
+	 * Color of cells
 	 */
-	protected double previousYCoordinate;
+	public static final Color COLOR = Color.WHITE;
 
 	// =============== Constructors ===============
 	public Cell() {
 		setWidth(SIZE);
 		setHeight(SIZE);
-		setFill(Color.WHITE);
+		setFill(COLOR);
 	}
 
 	// =============== Methods ===============
-	/**
-	 * Returns previous x coordinate
-	 * 
-	 * @return previous x coordinate
-	 */
-	public double getPreviousXCoordinate() {
-		return previousXCoordinate;
-	}
-
-	/**
-	 * Returns previous y coordinate
-	 * 
-	 * @return previous y coordinate
-	 */
-	public double getPreviousYCoordinate() {
-		return previousYCoordinate;
-	}
-
-	public void updatePreviousPosition() {
-		previousXCoordinate = getXCoordinate();
-		previousYCoordinate = getYCoordinate();
-	}
-
 	/**
 	 * Returns x coordinate center of cell
 	 * 
@@ -97,4 +68,14 @@ public abstract class Cell extends Rectangle {
 		setXCoordinate(x);
 		setYCoordinate(y);
 	}
+
+	/**
+	 * Sets center of cell on the center of board's cell (x,y)
+	 * 
+	 * @param x - column of a board
+	 * @param y - row of a board
+	 */
+	public void setCell(int x, int y) {
+		setPosition(x * SIZE + SIZE / 2, y * SIZE + SIZE / 2);
+	}
 }
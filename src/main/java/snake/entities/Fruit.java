@@ -51,4 +51,14 @@ public abstract class Fruit extends Circle {
 		setCenterX(x);
 		setCenterY(y);
 	}
+
+	/**
+	 * Sets center of a fruit on the center of board's cell (x,y)
+	 * 
+	 * @param x - column of a board
+	 * @param y - row of a board
+	 */
+	public void setCell(int x, int y) {
+		setPosition(x * Cell.SIZE + Cell.SIZE / 2, y * Cell.SIZE + Cell.SIZE / 2);
+	}
 }
\ No newline at end of file
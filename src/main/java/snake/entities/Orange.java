@@ -1,6 +1,7 @@
 package snake.entities;
 
 import javafx.scene.paint.Color;
+import snake.engine.FruitKind;
 
 /**
  * Сlass represents an orange
@@ -10,21 +11,21 @@ import javafx.scene.paint.Color;
 public final class Orange extends Fruit {
 	// =============== Constants ===============
 	/**
-	 * How much time between generating cycles
+	 * Color of oranges
 	 */
-	public static final int TIME_TO_GENERATE = 5;
+	public static final Color COLOR = Color.rgb(255, 215, 0);
 
 	// =============== Constructors ===============
 	public Orange(double x, double y) {
-		super(x, y, Color.rgb(255, 215, 0));
+		super(x, y, COLOR);
 	}
 
 	/**
-	 * Returns value of an apple
+	 * Returns value of an orange
 	 * 
-	 * @return value of an apple
+	 * @return value of an orange
 	 */
 	public static int getValue() {
-		return 2;
+		return FruitKind.ORANGE.getValue();
 	}
 }
\ No newline at end of file
@@ -1,112 +1,50 @@
 package snake.entities.factory;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 import snake.entities.Apple;
+import snake.entities.Cell;
 import snake.entities.Orange;
-import snake.entities.Snake;
 
 /**
  * 
- * Factory creates fruit on random, allowed positions
+ * Factory creates fruit on cells chosen by {@code GameEngine}
  * 
  * @author Yevhenii Kozhevin
  *
  */
 public class FruitFactory {
-	/**
-	 * List of values representing coordinates
-	 */
-	private static List<Integer> coordinates = new ArrayList<Integer>(26);
-	/**
-	 * Singleton object of {@code Snake} class
-	 */
-	private static Snake snake = Snake.getInstance();
-
-	static {
-		// filling list coordinates with values
-		for (int i = 0, j = 1; i < 25; i++, j += 2) {
-			coordinates.add(j * 10);
-		}
-	}
-
-	/**
-	 * Returns an {@code Apple} object on random position
-	 * 
-	 * @return an {@code Apple} object on random position
-	 */
-	public static Apple createAppleOnRandomPosition() {
-		return new Apple(generateRandomCoordinate(Axis.X), generateRandomCoordinate(Axis.Y));
+	private FruitFactory() {
 	}
 
 	/**
-	 * Returns an {@code Orange} object on random position
+	 * Returns an {@code Apple} object on the center of board's cell (x,y)
 	 * 
-	 * @return an {@code Orange} object on random position
+	 * @param x - column of a board
+	 * @param y - row of a board
+	 * @return an {@code Apple} object on (x,y)
 	 */
-	public static Orange createOrangeOnRandomPosition() {
-		return new Orange(generateRandomCoordinate(Axis.X), generateRandomCoordinate(Axis.Y));
+	public static Apple createApple(int x, int y) {
+		return new Apple(toPixel(x), toPixel(y));
 	}
 
 	/**
-	 * Generates random coordinate from a list of allowed coordinates
+	 * Returns an {@code Orange} object on the center of board's cell (x,y)
 	 * 
-	 * @param axis
-	 * @return random coordinate from a list of allowed coordinates
+	 * @param x - column of a board
+	 * @param y - row of a board
+	 * @return an {@code Orange} object on (x,y)
 	 */
-	private static int generateRandomCoordinate(Axis axis) {
-		List<Integer> allowedPositions = allowedPositions(axis);
-		return allowedPositions.get((int) (Math.random() * allowedPositions.size()));
+	public static Orange createOrange(int x, int y) {
+		return new Orange(toPixel(x), toPixel(y));
 	}
 
 	/**
-	 * Returns list of allowed coordinates
+	 * Converts a column or a row of a board to a coordinate of its center on a
+	 * pane
 	 * 
-	 * @param axis
-	 * @return list of allowed coordinates
+	 * @param cell - column or row
+	 * @return coordinate in pixels
 	 */
-	private static List<Integer> allowedPositions(Axis axis) {
-		Set<Integer> badPositions = badPositions(axis);
-		ArrayList<Integer> allowedPositions = new ArrayList<>(coordinates);
-		for (Integer d : coordinates) {
-			for (Integer bad : badPositions) {
-				if (d.equals(bad)) {
-					allowedPositions.remove(d);
-					break;
-				}
-			}
-		}
-		return allowedPositions;
-	}
-
-	/**
-	 * Returns a list of forbidden coordinates
-	 * 
-	 * @param axis
-	 * @return list of forbidden coordinates
-	 */
-	private static Set<Integer> badPositions(Axis axis) {
-		Set<Integer> badPositions = new HashSet<>(26);
-		int snakeCoord;
-		if (axis == Axis.X) {
-			snakeCoord = snake.getXCoordinate();
-			for (Snake.PartOfSnake part : snake.getPartsOfSnake()) {
-				badPositions.add(part.getXCoordinate());
-			}
-		} else {
-			snakeCoord = snake.getYCoordinate();
-			for (Snake.PartOfSnake part : snake.getPartsOfSnake()) {
-				badPositions.add(part.getYCoordinate());
-			}
-		}
-		badPositions.add(snakeCoord);
-		return badPositions;
-	}
-
-	private enum Axis {
-		X, Y
+	private static int toPixel(int cell) {
+		return cell * Cell.SIZE + Cell.SIZE / 2;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package snake.entities.factory;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+import javafx.scene.Node;
+
+/**
+ * Nodes which are not shown now and may be shown again, so parts of a snake
+ * and fruits are not created on every growth, eat and restart. Must be used
+ * from JavaFX Application Thread
+ *
+ * @author Yevhenii Kozhevin
+ *
+ * @param <T> type of nodes
+ */
+public class NodePool<T extends Node> {
+	// =============== Constants ===============
+	/**
+	 * Creates a node when the pool is empty
+	 */
+	private final Supplier<T> factory;
+	/**
+	 * How many nodes are kept
+	 */
+	private final int maxSize;
+	/**
+	 * Free nodes
+	 */
+	private final ArrayDeque<T> free = new ArrayDeque<>();
+
+	// =============== Fields ===============
+	/**
+	 * Count of nodes created by the pool
+	 */
+	private long createdCount;
+
+	// =============== Constructors ===============
+	/**
+	 * @param factory - creates a node when the pool is empty
+	 * @param maxSize - how many nodes are kept
+	 */
+	public NodePool(Supplier<T> factory, int maxSize) {
+		this.factory = factory;
+		this.maxSize = maxSize;
+	}
+
+	// =============== Get/Set ===============
+	public int size() {
+		return free.size();
+	}
+
+	public long getCreatedCount() {
+		return createdCount;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Takes a free node
+	 *
+	 * @return a free node, null if the pool is empty
+	 */
+	public T poll() {
+		return free.pollLast();
+	}
+
+	/**
+	 * Creates a new node, should be called when {@code poll()} returns null
+	 *
+	 * @return a new node
+	 */
+	public T create() {
+		createdCount++;
+		return factory.get();
+	}
+
+	/**
+	 * Returns a node which is not shown anymore
+	 *
+	 * @param node
+	 * @return false if the pool is full and the node is dropped
+	 */
+	public boolean release(T node) {
+		if (free.size() >= maxSize) {
+			return false;
+		}
+		free.addLast(node);
+		return true;
+	}
+}
@@ -0,0 +1,23 @@
+package snake.interfaces;
+
+import snake.engine.ArenaEngine;
+import snake.engine.ArenaSnake;
+import snake.engine.Direction;
+
+/**
+ * Plays one snake of an arena
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface IArenaBot {
+	/**
+	 * Chooses a direction of a snake for the next tick. Is called before every
+	 * tick on the thread running {@code arena}
+	 * 
+	 * @param arena - current state of a game, must not be changed
+	 * @param snake - alive snake played by the bot
+	 * @return direction of snake's head on the next tick
+	 */
+	Direction nextDirection(ArenaEngine arena, ArenaSnake snake);
+}
@@ -0,0 +1,21 @@
+package snake.interfaces;
+
+import snake.engine.Direction;
+import snake.engine.GameEngine;
+
+/**
+ * Plays a game instead of a player
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface IBot {
+	/**
+	 * Chooses a direction for the next tick. Is called before every tick on the
+	 * thread running {@code engine}
+	 * 
+	 * @param engine - current state of a game, must not be changed
+	 * @return direction of snake's head on the next tick
+	 */
+	Direction nextDirection(GameEngine engine);
+}
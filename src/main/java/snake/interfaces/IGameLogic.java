@@ -1,6 +1,6 @@
 package snake.interfaces;
 
-import snake.engine.GameLogic;
+import snake.engine.Direction;
 
 /**
  * 
@@ -16,7 +16,7 @@ public interface IGameLogic {
 	/**
 	 * Changes snake direction
 	 */
-	void changeDirection(GameLogic.Direction direction);
+	void changeDirection(Direction direction);
 
 	/**
 	 * What to do when game is finished
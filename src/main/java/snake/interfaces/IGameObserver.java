@@ -0,0 +1,89 @@
+package snake.interfaces;
+
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+import snake.engine.FrameDiff;
+import snake.engine.FruitKind;
+
+/**
+ * Receives notifications about changes of a game state. All coordinates are in
+ * cells. Every method does nothing by default, so an observer overrides only
+ * what it needs
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface IGameObserver {
+	/**
+	 * A tick uses another direction than the previous one. A turn starts with
+	 * {@code Direction.RIGHT}
+	 * 
+	 * @param tick      - number of the tick, the first tick of a turn is 1
+	 * @param direction - direction of the tick
+	 */
+	default void directionApplied(long tick, Direction direction) {
+	}
+
+	/**
+	 * Snake's head has moved on (x,y)
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	default void snakeMoved(int x, int y) {
+	}
+
+	/**
+	 * Snake's body has become longer
+	 * 
+	 * @param count - how many parts were added
+	 */
+	default void snakeGrown(int count) {
+	}
+
+	/**
+	 * A fruit has been placed on (x,y)
+	 * 
+	 * @param kind
+	 * @param x
+	 * @param y
+	 */
+	default void fruitPlaced(FruitKind kind, int x, int y) {
+	}
+
+	/**
+	 * A fruit has been eaten by a snake
+	 * 
+	 * @param kind
+	 */
+	default void fruitEaten(FruitKind kind) {
+	}
+
+	/**
+	 * A fruit has been eaten or replaced
+	 * 
+	 * @param kind
+	 */
+	default void fruitRemoved(FruitKind kind) {
+	}
+
+	/**
+	 * A tick is finished. {@code diff} contains all changes of a board made since
+	 * the previous call and is reused after the method returns, so it must be
+	 * consumed or copied right away
+	 * 
+	 * @param diff - changes of a board
+	 */
+	default void frameFinished(FrameDiff diff) {
+	}
+
+	/**
+	 * A turn is finished
+	 * 
+	 * @param reason - why a turn is finished
+	 * @param x      - x coordinate of snake's head
+	 * @param y      - y coordinate of snake's head
+	 */
+	default void gameFinished(FinishReason reason, int x, int y) {
+	}
+}
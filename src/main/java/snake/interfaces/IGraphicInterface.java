@@ -1,6 +1,6 @@
 package snake.interfaces;
 
-import javafx.scene.Node;
+import snake.engine.FrameDiff;
 
 /**
  * 
@@ -9,18 +9,21 @@ import javafx.scene.Node;
  */
 public interface IGraphicInterface {
 	/**
-	 * Adds {@code node} on a pane
+	 * Sets the size of a shown part of a board in cells, is called before a game
+	 * is started
 	 * 
-	 * @param node - object to add
+	 * @param width
+	 * @param height
 	 */
-	void addObject(Node node);
+	void setBoardSize(int width, int height);
 
 	/**
-	 * Removes {@code node} from a pane
+	 * Shows changes of a board made during a tick. May be called from any thread,
+	 * {@code diff} is reused by the caller after the method returns
 	 * 
-	 * @param node - object to remove
+	 * @param diff - changes of a board
 	 */
-	void removeObject(Node node);
+	void applyDiff(FrameDiff diff);
 
 	/**
 	 * Clears a game pane
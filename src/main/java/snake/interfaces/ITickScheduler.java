@@ -0,0 +1,56 @@
+package snake.interfaces;
+
+import java.util.function.BooleanSupplier;
+
+import snake.engine.GameMetrics;
+
+/**
+ * Runs ticks of one game with a fixed timestep. Ticks of a game never run at
+ * the same time, every tick sees changes made by the previous one
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface ITickScheduler {
+	/**
+	 * Returns the tick rate
+	 *
+	 * @return count of ticks per second
+	 */
+	int getTicksPerSecond();
+
+	/**
+	 * Changes the tick rate, a running scheduler applies it from the next tick
+	 *
+	 * @param ticksPerSecond
+	 */
+	void setTicksPerSecond(int ticksPerSecond);
+
+	/**
+	 * Sets where timings of ticks are recorded
+	 *
+	 * @param metrics - null to stop recording
+	 */
+	void setMetrics(GameMetrics metrics);
+
+	/**
+	 * Starts calling {@code tick} until it returns false or the scheduler is
+	 * stopped. Previously started ticks are stopped first
+	 *
+	 * @param tick - returns true while ticks are needed
+	 */
+	void start(BooleanSupplier tick);
+
+	/**
+	 * Stops ticks and waits until a running tick returns. Does not wait when
+	 * called from a tick
+	 */
+	void stop();
+
+	/**
+	 * Checks if ticks are running
+	 *
+	 * @return true if ticks are scheduled
+	 */
+	boolean isRunning();
+}
@@ -0,0 +1,104 @@
+package snake.main;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.scene.image.Image;
+
+/**
+ * Decoded images of the game. An image is decoded by a background thread of
+ * JavaFX once and kept, so a pane can be shown before its images are ready and
+ * a pane shown again does not decode them again. Images may be requested from
+ * any thread, callbacks are run on JavaFX Application Thread
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class AssetManager {
+	// =============== Constants ===============
+	/**
+	 * Background of the start pane
+	 */
+	public static final String BACKGROUND = "/snake-bg.jpg";
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AssetManager.class);
+	/**
+	 * Images by their paths and sizes
+	 */
+	private final Map<String, Image> images = new ConcurrentHashMap<>();
+
+	// =============== Methods ===============
+	/**
+	 * Starts decoding an image in background if it is not decoded yet
+	 *
+	 * @param path   - path of the image among resources
+	 * @param width  - width to scale the image to
+	 * @param height - height to scale the image to
+	 */
+	public void preload(String path, double width, double height) {
+		get(path, width, height);
+	}
+
+	/**
+	 * Returns an image, it may be still decoding
+	 *
+	 * @param path   - path of the image among resources
+	 * @param width  - width to scale the image to
+	 * @param height - height to scale the image to
+	 * @return the image
+	 */
+	public Image get(String path, double width, double height) {
+		return images.computeIfAbsent(path + "@" + width + "x" + height,
+				key -> new Image(path, width, height, false, true, true));
+	}
+
+	/**
+	 * Passes an image to {@code action} when it is decoded, at once if it is
+	 * already decoded. Must be called from JavaFX Application Thread. An image
+	 * which can not be decoded is logged and not passed
+	 *
+	 * @param path   - path of the image among resources
+	 * @param width  - width to scale the image to
+	 * @param height - height to scale the image to
+	 * @param action - what to do with the decoded image
+	 */
+	public void whenLoaded(String path, double width, double height, Consumer<Image> action) {
+		Image image = get(path, width, height);
+		if (image.getProgress() >= 1 || image.isError()) {
+			pass(path, image, action);
+			return;
+		}
+		// loading updates the image on JavaFX Application Thread, so nothing is missed
+		image.progressProperty().addListener((observable, oldProgress, progress) -> {
+			if (progress.doubleValue() >= 1 && !image.isError()) {
+				pass(path, image, action);
+			}
+		});
+		image.errorProperty().addListener((observable, wasError, isError) -> {
+			if (isError) {
+				pass(path, image, action);
+			}
+		});
+	}
+
+	/**
+	 * Passes a loaded image to {@code action} unless it is broken
+	 *
+	 * @param path   - path of the image, for the log
+	 * @param image  - loaded image
+	 * @param action - what to do with the image
+	 */
+	private void pass(String path, Image image, Consumer<Image> action) {
+		if (image.isError()) {
+			LOGGER.error("Can not load image " + path, image.getException());
+			return;
+		}
+		action.accept(image);
+	}
+}
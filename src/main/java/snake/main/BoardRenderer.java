@@ -0,0 +1,55 @@
+package snake.main;
+
+import snake.engine.FrameDiff;
+import snake.engine.GameMetrics;
+import snake.interfaces.IGraphicInterface;
+
+/**
+ * Base class of GUIs drawing a board. Diffs are queued with {@code DiffQueue},
+ * so every change is applied on JavaFX Application Thread
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+abstract class BoardRenderer implements IGraphicInterface, FrameDiff.Handler {
+	// =============== Constants ===============
+	/**
+	 * Applies diffs of a game on JavaFX Application Thread
+	 */
+	private final DiffQueue diffQueue;
+
+	// =============== Fields ===============
+	/**
+	 * Width of a board in cells
+	 */
+	protected int boardWidth;
+	/**
+	 * Height of a board in cells
+	 */
+	protected int boardHeight;
+
+	// =============== Constructors ===============
+	/**
+	 * @param metrics - where the time diffs wait to be applied is recorded
+	 */
+	BoardRenderer(GameMetrics metrics) {
+		diffQueue = new DiffQueue(this, metrics);
+	}
+
+	// =============== Methods ===============
+	@Override
+	public void setBoardSize(int width, int height) {
+		boardWidth = width;
+		boardHeight = height;
+	}
+
+	@Override
+	public void applyDiff(FrameDiff diff) {
+		diffQueue.offer(diff);
+	}
+
+	@Override
+	public void clear() {
+		diffQueue.clear();
+	}
+}
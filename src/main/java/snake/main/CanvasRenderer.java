@@ -0,0 +1,130 @@
+package snake.main;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import snake.engine.CellContent;
+import snake.engine.GameMetrics;
+import snake.entities.Apple;
+import snake.entities.Cell;
+import snake.entities.Orange;
+
+/**
+ * Draws a board on a single {@code Canvas}. Pixels stay on a canvas between
+ * frames, so only cells changed by a diff are repainted and the scene graph
+ * does not grow with a snake
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+class CanvasRenderer extends BoardRenderer {
+	// =============== Constants ===============
+	/**
+	 * Pane where a canvas is shown
+	 */
+	private final Pane root;
+
+	// =============== Fields ===============
+	/**
+	 * Canvas with a board
+	 */
+	private Canvas canvas;
+	/**
+	 * Cell where the head is drawn, -1 if it is already painted over
+	 */
+	private int headCell = -1;
+
+	// =============== Constructors ===============
+	CanvasRenderer(Pane root, GameMetrics metrics) {
+		super(metrics);
+		this.root = root;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public void setBoardSize(int width, int height) {
+		super.setBoardSize(width, height);
+		if (canvas == null || canvas.getWidth() != width * Cell.SIZE || canvas.getHeight() != height * Cell.SIZE) {
+			root.getChildren().remove(canvas);
+			canvas = new Canvas(width * Cell.SIZE, height * Cell.SIZE);
+			root.getChildren().add(canvas);
+		}
+		fillBackground();
+	}
+
+	@Override
+	public void set(int cell, CellContent content) {
+		if (content == CellContent.HEAD) {
+			if (headCell >= 0) {
+				paint(headCell, CellContent.EMPTY);
+			}
+			headCell = cell;
+		} else if (cell == headCell) {
+			headCell = -1;
+		}
+		paint(cell, content);
+	}
+
+	@Override
+	public void move(int from, int to) {
+		if (to == headCell) {
+			headCell = -1;
+		}
+		paint(from, CellContent.EMPTY);
+		paint(to, CellContent.BODY);
+	}
+
+	/**
+	 * Repaints one cell
+	 * 
+	 * @param cell
+	 * @param content - what to draw on the cell
+	 */
+	private void paint(int cell, CellContent content) {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		double x = (cell % boardWidth) * Cell.SIZE;
+		double y = (cell / boardWidth) * Cell.SIZE;
+		gc.setFill(Color.BLACK);
+		gc.fillRect(x, y, Cell.SIZE, Cell.SIZE);
+		switch (content) {
+		case HEAD:
+		case BODY:
+			gc.setFill(Cell.COLOR);
+			gc.fillRect(x, y, Cell.SIZE, Cell.SIZE);
+			break;
+		case CRASH:
+			gc.setFill(Color.RED);
+			gc.fillRect(x, y, Cell.SIZE, Cell.SIZE);
+			break;
+		case APPLE:
+			gc.setFill(Apple.COLOR);
+			gc.fillOval(x, y, Cell.SIZE, Cell.SIZE);
+			break;
+		case ORANGE:
+			gc.setFill(Orange.COLOR);
+			gc.fillOval(x, y, Cell.SIZE, Cell.SIZE);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Paints the whole canvas black
+	 */
+	private void fillBackground() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.setFill(Color.BLACK);
+		gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		headCell = -1;
+		if (canvas != null) {
+			fillBackground();
+		}
+	}
+}
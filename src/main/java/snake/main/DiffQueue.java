@@ -0,0 +1,95 @@
+package snake.main;
+
+import javafx.application.Platform;
+import snake.engine.FrameDiff;
+import snake.engine.GameMetrics;
+
+/**
+ * Collects diffs coming from a game thread and applies them on JavaFX
+ * Application Thread. Diffs offered before the pending ones are applied are
+ * merged, so there is at most one {@code Platform.runLater} in the queue
+ * whatever the tick rate is
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+class DiffQueue {
+	// =============== Constants ===============
+	/**
+	 * Changes waiting to be applied
+	 */
+	private final FrameDiff pending = new FrameDiff();
+	/**
+	 * Changes being applied, accessed only from JavaFX Application Thread
+	 */
+	private final FrameDiff applied = new FrameDiff();
+	/**
+	 * Who applies changes
+	 */
+	private final FrameDiff.Handler handler;
+	/**
+	 * Where the time changes wait to be applied is recorded
+	 */
+	private final GameMetrics metrics;
+
+	// =============== Fields ===============
+	/**
+	 * Flag showing that {@code apply()} is already in the queue of JavaFX
+	 */
+	private boolean isPulseScheduled = false;
+	/**
+	 * When {@code apply()} was put in the queue of JavaFX, by
+	 * {@code System.nanoTime()}
+	 */
+	private long scheduledAt;
+
+	// =============== Constructors ===============
+	DiffQueue(FrameDiff.Handler handler, GameMetrics metrics) {
+		this.handler = handler;
+		this.metrics = metrics;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Copies {@code diff} to pending changes, schedules applying them if it is not
+	 * scheduled yet
+	 * 
+	 * @param diff
+	 */
+	void offer(FrameDiff diff) {
+		synchronized (pending) {
+			pending.addAll(diff);
+			if (isPulseScheduled) {
+				return;
+			}
+			isPulseScheduled = true;
+			scheduledAt = System.nanoTime();
+		}
+		Platform.runLater(this::apply);
+	}
+
+	/**
+	 * Drops pending changes
+	 */
+	void clear() {
+		synchronized (pending) {
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Applies all pending changes
+	 */
+	private void apply() {
+		long delay;
+		synchronized (pending) {
+			delay = System.nanoTime() - scheduledAt;
+			applied.clear();
+			applied.addAll(pending);
+			pending.clear();
+			isPulseScheduled = false;
+		}
+		applied.forEach(handler);
+		metrics.frameRendered(delay);
+	}
+}
@@ -0,0 +1,197 @@
+package snake.main;
+
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Shape;
+import snake.engine.CellContent;
+import snake.engine.GameMetrics;
+import snake.entities.Apple;
+import snake.entities.Cell;
+import snake.entities.Orange;
+import snake.entities.Snake;
+import snake.entities.Snake.PartOfSnake;
+import snake.entities.factory.FruitFactory;
+import snake.entities.factory.NodePool;
+
+/**
+ * Shows every part of a snake and every fruit as a separate node of a pane.
+ * Removed nodes are hidden and kept in pools instead of being removed from the
+ * pane, so eating, growing and restarting reuse nodes
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+class NodeRenderer extends BoardRenderer {
+	// =============== Constants ===============
+	/**
+	 * How many hidden parts of a snake are kept
+	 */
+	private static final int MAX_POOLED_PARTS = 1024;
+	/**
+	 * How many hidden fruits of every kind are kept
+	 */
+	private static final int MAX_POOLED_FRUITS = 4;
+	/**
+	 * Pane where nodes are shown
+	 */
+	private final Pane root;
+	/**
+	 * Head of a snake
+	 */
+	private final Snake snake = new Snake();
+	/**
+	 * Hidden parts of a snake
+	 */
+	private final NodePool<PartOfSnake> parts = new NodePool<>(PartOfSnake::new, MAX_POOLED_PARTS);
+	/**
+	 * Hidden apples
+	 */
+	private final NodePool<Apple> apples = new NodePool<>(() -> FruitFactory.createApple(0, 0), MAX_POOLED_FRUITS);
+	/**
+	 * Hidden oranges
+	 */
+	private final NodePool<Orange> oranges = new NodePool<>(() -> FruitFactory.createOrange(0, 0),
+			MAX_POOLED_FRUITS);
+
+	// =============== Fields ===============
+	/**
+	 * Flag showing that the head is on the pane
+	 */
+	private boolean isHeadShown = false;
+	/**
+	 * Nodes of parts of snake's body and fruits by cells of a board
+	 */
+	private Node[] nodes = new Node[0];
+
+	// =============== Constructors ===============
+	NodeRenderer(Pane root, GameMetrics metrics) {
+		super(metrics);
+		this.root = root;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public void setBoardSize(int width, int height) {
+		super.setBoardSize(width, height);
+		if (nodes.length != width * height) {
+			hideAll();
+			nodes = new Node[width * height];
+		}
+	}
+
+	@Override
+	public void set(int cell, CellContent content) {
+		int x = cell % boardWidth;
+		int y = cell / boardWidth;
+		if (content == CellContent.CRASH) {
+			if (nodes[cell] instanceof Shape) {
+				((Shape) nodes[cell]).setFill(Color.RED);
+			}
+			return;
+		}
+		if (nodes[cell] != null) {
+			hide(nodes[cell]);
+			nodes[cell] = null;
+		}
+		switch (content) {
+		case HEAD:
+			if (!isHeadShown) {
+				if (snake.getParent() == null) {
+					root.getChildren().add(snake);
+				}
+				snake.setVisible(true);
+				isHeadShown = true;
+			}
+			snake.setCell(x, y);
+			break;
+		case BODY:
+			PartOfSnake part = show(parts);
+			part.setCell(x, y);
+			nodes[cell] = part;
+			break;
+		case APPLE:
+			Apple apple = show(apples);
+			apple.setCell(x, y);
+			nodes[cell] = apple;
+			break;
+		case ORANGE:
+			Orange orange = show(oranges);
+			orange.setCell(x, y);
+			nodes[cell] = orange;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void move(int from, int to) {
+		Cell part = (Cell) nodes[from];
+		nodes[from] = null;
+		nodes[to] = part;
+		part.setCell(to % boardWidth, to / boardWidth);
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		hideAll();
+	}
+
+	/**
+	 * Takes a hidden node from {@code pool} and shows it, adds a new node to the
+	 * pane if the pool is empty
+	 *
+	 * @param pool
+	 * @return a shown node
+	 */
+	private <T extends Node> T show(NodePool<T> pool) {
+		T node = pool.poll();
+		if (node == null) {
+			node = pool.create();
+			root.getChildren().add(node);
+		} else {
+			node.setVisible(true);
+		}
+		return node;
+	}
+
+	/**
+	 * Hides a node of a part of snake's body or a fruit and returns it to its
+	 * pool, removes it from the pane if the pool is full
+	 *
+	 * @param node
+	 */
+	private void hide(Node node) {
+		node.setVisible(false);
+		boolean isKept;
+		if (node instanceof PartOfSnake) {
+			PartOfSnake part = (PartOfSnake) node;
+			// a crashed part is red
+			part.setFill(Cell.COLOR);
+			isKept = parts.release(part);
+		} else if (node instanceof Apple) {
+			isKept = apples.release((Apple) node);
+		} else {
+			isKept = oranges.release((Orange) node);
+		}
+		if (!isKept) {
+			root.getChildren().remove(node);
+		}
+	}
+
+	/**
+	 * Hides all nodes of a board and the head
+	 */
+	private void hideAll() {
+		for (int i = 0; i < nodes.length; i++) {
+			if (nodes[i] != null) {
+				hide(nodes[i]);
+				nodes[i] = null;
+			}
+		}
+		snake.setVisible(false);
+		isHeadShown = false;
+	}
+}
@@ -1,12 +1,16 @@
 package snake.main;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BackgroundImage;
@@ -17,16 +21,21 @@ import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import snake.engine.Direction;
 import snake.engine.GameLogic;
+import snake.engine.GameMetrics;
 import snake.interfaces.IGameLogic;
 import snake.interfaces.IGraphicInterface;
+import snake.replay.Replay;
+import snake.replay.ReplayPlayer;
+import snake.results.Leaderboard;
 
 /**
  * @author Yevhenii Kozhevin
  *
  *         Class is responsible for area, where game is running
  */
-public class SnakeGame extends Application implements IGraphicInterface {
+public class SnakeGame extends Application {
 
 	public static void main(String[] args) {
 		Application.launch(args);
@@ -37,6 +46,29 @@ public class SnakeGame extends Application implements IGraphicInterface {
 	 * The length of each side of a game pane
 	 */
 	public static final int SIZE = 500;
+	/**
+	 * How a board is drawn: "nodes" - every cell is a node of a pane, "canvas" -
+	 * the whole board is drawn on one canvas. Can be changed with system property
+	 * {@code snake.renderer}
+	 */
+	public static final String RENDERER = System.getProperty("snake.renderer", "nodes");
+	/**
+	 * Width of the background of the start pane
+	 */
+	private static final int BACKGROUND_WIDTH = 700;
+	/**
+	 * Height of the background of the start pane
+	 */
+	private static final int BACKGROUND_HEIGHT = 500;
+	/**
+	 * File of a recorded turn shown instead of a game, can be set with system
+	 * property {@code snake.replay}
+	 */
+	public static final String REPLAY = System.getProperty("snake.replay");
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(SnakeGame.class);
 
 	// =============== Fields ===============
 	/**
@@ -48,7 +80,18 @@ public class SnakeGame extends Application implements IGraphicInterface {
 	 */
 	private Scene scene;
 
-	private IGameLogic logic = new GameLogic(this);
+	/**
+	 * Game logic, created when the game pane is shown
+	 */
+	private IGameLogic logic;
+	/**
+	 * Timings and counters of games, published over JMX
+	 */
+	private final GameMetrics metrics = new GameMetrics();
+	/**
+	 * Decoded images, kept while the application runs
+	 */
+	private final AssetManager assets = new AssetManager();
 
 	// =============== Methods ===============
 	@Override
@@ -61,18 +104,26 @@ public class SnakeGame extends Application implements IGraphicInterface {
 
 	@Override
 	public void init() {
+		// decoding goes on while the rest of the application starts
+		assets.preload(AssetManager.BACKGROUND, BACKGROUND_WIDTH, BACKGROUND_HEIGHT);
+		// so the end of the first game does not wait for loading results
+		Leaderboard.loadDefault();
+		metrics.register();
 		initStartPane();
 	}
 
 	/**
-	 * Shows pane with button "start"
+	 * Shows pane with button "start", its background is plain until the image is
+	 * decoded
 	 */
 	private void initStartPane() {
 		root = new Pane();
 		root.setPrefSize(SIZE - 12, SIZE - 12); // fx/os/jdk adds additional 12px
-		root.setBackground(new Background(
-				new BackgroundImage(new Image("/snake-bg.jpg", 700, 500, false, true), BackgroundRepeat.NO_REPEAT,
-						BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, BackgroundSize.DEFAULT)));
+		Pane startPane = root;
+		startPane.setBackground(new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY)));
+		Platform.runLater(() -> assets.whenLoaded(AssetManager.BACKGROUND, BACKGROUND_WIDTH, BACKGROUND_HEIGHT,
+				image -> startPane.setBackground(new Background(new BackgroundImage(image, BackgroundRepeat.NO_REPEAT,
+						BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, BackgroundSize.DEFAULT)))));
 
 		Button btn = new Button("Start");
 		btn.setPrefSize(80, 40);
@@ -98,10 +149,41 @@ public class SnakeGame extends Application implements IGraphicInterface {
 		scene.setFill(Color.BLACK);
 		stage.setScene(scene);
 
+		logic = createLogic(createRenderer(root));
 		initKeyListener(scene);
 		logic.initGame();
 	}
 
+	/**
+	 * Creates a player of {@code REPLAY} if it is set, otherwise game logic
+	 * 
+	 * @param gui - where a board is drawn
+	 * @return logic running the game pane
+	 */
+	private IGameLogic createLogic(IGraphicInterface gui) {
+		if (REPLAY != null) {
+			try {
+				return new ReplayPlayer(Replay.read(new File(REPLAY)), gui, GameLogic.TICKS_PER_SECOND);
+			} catch (IOException e) {
+				LOGGER.error("Can not read replay " + REPLAY, e);
+			}
+		}
+		return new GameLogic(gui, metrics);
+	}
+
+	/**
+	 * Creates a GUI chosen with {@code RENDERER}
+	 * 
+	 * @param root - game pane
+	 * @return GUI drawing a board on {@code root}
+	 */
+	private IGraphicInterface createRenderer(Pane root) {
+		if ("canvas".equals(RENDERER)) {
+			return new CanvasRenderer(root, metrics);
+		}
+		return new NodeRenderer(root, metrics);
+	}
+
 	/**
 	 * Sets {@code EventHandler} reactions on a certain buttons
 	 * 
@@ -113,19 +195,19 @@ public class SnakeGame extends Application implements IGraphicInterface {
 			switch (event.getCode()) {
 			case W:
 			case UP:
-				logic.changeDirection(GameLogic.Direction.UP);
+				logic.changeDirection(Direction.UP);
 				break;
 			case A:
 			case LEFT:
-				logic.changeDirection(GameLogic.Direction.LEFT);
+				logic.changeDirection(Direction.LEFT);
 				break;
 			case S:
 			case DOWN:
-				logic.changeDirection(GameLogic.Direction.DOWN);
+				logic.changeDirection(Direction.DOWN);
 				break;
 			case D:
 			case RIGHT:
-				logic.changeDirection(GameLogic.Direction.RIGHT);
+				logic.changeDirection(Direction.RIGHT);
 				break;
 			}
 		});
@@ -133,21 +215,12 @@ public class SnakeGame extends Application implements IGraphicInterface {
 
 	@Override
 	public void stop() {
-		logic.finishGame();
-	}
-
-	@Override
-	public void addObject(Node node) {
-		Platform.runLater(() -> root.getChildren().add(node));
-	}
-
-	@Override
-	public void removeObject(Node node) {
-		Platform.runLater(() -> root.getChildren().remove(node));
-	}
-
-	@Override
-	public void clear() {
-		root.getChildren().clear();
+		if (logic instanceof GameLogic) {
+			((GameLogic) logic).saveGame();
+		} else if (logic != null) {
+			logic.finishGame();
+		}
+		Leaderboard.flushDefault();
+		metrics.unregister();
 	}
 }
\ No newline at end of file
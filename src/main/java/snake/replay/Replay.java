@@ -0,0 +1,313 @@
+package snake.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+
+/**
+ * Recorded turn: settings of a board, the seed of random positions of fruits
+ * and every change of direction. A turn depends only on them, so the engine
+ * repeats it exactly. A change is stored as a varint of
+ * {@code (ticks since the previous change << 2) | direction}, so a long turn
+ * takes a few bytes per turn of the snake
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class Replay {
+	// =============== Constants ===============
+	/**
+	 * First bytes of a file, "SNRP"
+	 */
+	private static final int MAGIC = 0x534E5250;
+	/**
+	 * Version of the format
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Directions by their ordinals
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * Count of ticks between generating cycles of oranges
+	 */
+	private final int ticksToGenerateOrange;
+	/**
+	 * Seed of random positions of fruits
+	 */
+	private final long seed;
+	/**
+	 * Count of ticks of the turn
+	 */
+	private final long tickCount;
+	/**
+	 * Why the turn is finished
+	 */
+	private final FinishReason finishReason;
+	/**
+	 * Encoded changes of direction
+	 */
+	private final byte[] events;
+	/**
+	 * Count of changes of direction
+	 */
+	private final int eventCount;
+
+	// =============== Constructors ===============
+	Replay(int width, int height, int ticksToGenerateOrange, long seed, long tickCount, FinishReason finishReason,
+			byte[] events, int eventCount) {
+		this.width = width;
+		this.height = height;
+		this.ticksToGenerateOrange = ticksToGenerateOrange;
+		this.seed = seed;
+		this.tickCount = tickCount;
+		this.finishReason = finishReason;
+		this.events = events;
+		this.eventCount = eventCount;
+	}
+
+	// =============== Get/Set ===============
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getTicksToGenerateOrange() {
+		return ticksToGenerateOrange;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	public FinishReason getFinishReason() {
+		return finishReason;
+	}
+
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Returns a cursor over changes of direction, placed before the first one
+	 * 
+	 * @return a new cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Saves the replay to {@code file}
+	 * 
+	 * @param file
+	 * @throws IOException if the file can not be written
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeInt(ticksToGenerateOrange);
+			out.writeLong(seed);
+			out.writeLong(tickCount);
+			out.writeByte(finishReason.ordinal());
+			out.writeInt(eventCount);
+			out.writeInt(events.length);
+			out.write(events);
+		}
+	}
+
+	/**
+	 * Reads a replay from {@code file}
+	 * 
+	 * @param file
+	 * @return the replay
+	 * @throws IOException if the file can not be read or is not a replay
+	 */
+	public static Replay read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+				throw new IOException("Not a replay: " + file);
+			}
+			int width = in.readInt();
+			int height = in.readInt();
+			int ticksToGenerateOrange = in.readInt();
+			long seed = in.readLong();
+			long tickCount = in.readLong();
+			int reason = in.readByte();
+			int eventCount = in.readInt();
+			int length = in.readInt();
+			// a board the engine can not create and more changes than bytes mean damage
+			if (width < 2 || height < 2 || (long) width * height > Integer.MAX_VALUE || ticksToGenerateOrange < 1
+					|| tickCount < 0 || reason < 0 || reason >= FinishReason.values().length || eventCount < 0
+					|| length < 0 || eventCount > length) {
+				throw new IOException("Damaged replay: " + file);
+			}
+			byte[] events = new byte[length];
+			in.readFully(events);
+			return new Replay(width, height, ticksToGenerateOrange, seed, tickCount, FinishReason.values()[reason],
+					events, eventCount);
+		}
+	}
+
+	/**
+	 * Encodes changes of direction
+	 */
+	static final class Encoder {
+		// =============== Fields ===============
+		/**
+		 * Encoded changes
+		 */
+		private byte[] bytes = new byte[256];
+		/**
+		 * Count of used bytes
+		 */
+		private int length;
+		/**
+		 * Count of changes
+		 */
+		private int count;
+		/**
+		 * Tick of the previous change
+		 */
+		private long previousTick;
+
+		// =============== Methods ===============
+		/**
+		 * Adds a change, ticks must grow
+		 * 
+		 * @param tick
+		 * @param direction
+		 */
+		void add(long tick, Direction direction) {
+			long value = (tick - previousTick) << 2 | direction.ordinal();
+			previousTick = tick;
+			count++;
+			while (true) {
+				if (length + 1 > bytes.length) {
+					bytes = Arrays.copyOf(bytes, bytes.length * 2);
+				}
+				if ((value & ~0x7FL) == 0) {
+					bytes[length++] = (byte) value;
+					return;
+				}
+				bytes[length++] = (byte) (value & 0x7F | 0x80);
+				value >>>= 7;
+			}
+		}
+
+		/**
+		 * Removes all changes
+		 */
+		void clear() {
+			length = 0;
+			count = 0;
+			previousTick = 0;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(bytes, length);
+		}
+
+		int getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * Reads changes of direction one by one without creating objects
+	 */
+	public final class Cursor {
+		// =============== Fields ===============
+		/**
+		 * Position of the next change in {@code events}
+		 */
+		private int position;
+		/**
+		 * Count of read changes
+		 */
+		private int read;
+		/**
+		 * Tick of the current change
+		 */
+		private long tick;
+		/**
+		 * Direction of the current change
+		 */
+		private Direction direction;
+
+		// =============== Methods ===============
+		/**
+		 * Moves to the next change. A change cut off by the end of the bytes ends
+		 * the changes
+		 * 
+		 * @return false if there are no more changes
+		 */
+		public boolean next() {
+			if (read == eventCount) {
+				return false;
+			}
+			long value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				if (position == events.length) {
+					read = eventCount;
+					return false;
+				}
+				b = events[position++];
+				value |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			read++;
+			tick += value >>> 2;
+			direction = DIRECTIONS[(int) (value & 3)];
+			return true;
+		}
+
+		/**
+		 * Returns tick of the current change
+		 * 
+		 * @return tick where the direction is applied
+		 */
+		public long tick() {
+			return tick;
+		}
+
+		/**
+		 * Returns the current direction
+		 * 
+		 * @return direction applied from {@code tick()}
+		 */
+		public Direction direction() {
+			return direction;
+		}
+	}
+}
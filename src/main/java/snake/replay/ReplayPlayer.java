@@ -0,0 +1,211 @@
+package snake.replay;
+
+import java.io.File;
+import java.io.IOException;
+
+import snake.engine.Direction;
+import snake.engine.FrameDiff;
+import snake.engine.GameEngine;
+import snake.engine.GameLogic;
+import snake.engine.TickScheduler;
+import snake.engine.Viewport;
+import snake.interfaces.IGameLogic;
+import snake.interfaces.IGameObserver;
+import snake.interfaces.IGraphicInterface;
+
+/**
+ * Plays a recorded turn again. {@code play()} simulates it headlessly as fast
+ * as possible, e.g. to check a bug or to measure the engine on a real game. An
+ * instance shows it on a GUI in real time instead of a game played by a user
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ReplayPlayer implements IGameLogic, IGameObserver {
+	// =============== Constants ===============
+	/**
+	 * Replay being shown
+	 */
+	private final Replay replay;
+	/**
+	 * Where a board is drawn
+	 */
+	private final IGraphicInterface gui;
+	/**
+	 * Simulation of the turn
+	 */
+	private final GameEngine engine;
+	/**
+	 * Runs ticks of {@code engine}
+	 */
+	private final TickScheduler scheduler;
+	/**
+	 * Part of a board shown by a GUI
+	 */
+	private final Viewport viewport;
+
+	// =============== Fields ===============
+	/**
+	 * Changes of direction not applied yet
+	 */
+	private Replay.Cursor cursor;
+	/**
+	 * Flag showing that {@code cursor} is on a change not applied yet
+	 */
+	private boolean hasEvent;
+
+	// =============== Constructors ===============
+	/**
+	 * @param replay         - turn to show
+	 * @param gui            - where a board is drawn
+	 * @param ticksPerSecond - speed of playing
+	 */
+	public ReplayPlayer(Replay replay, IGraphicInterface gui, int ticksPerSecond) {
+		this.replay = replay;
+		this.gui = gui;
+		engine = createEngine(replay);
+		engine.setObserver(this);
+		scheduler = new TickScheduler(ticksPerSecond);
+		viewport = new Viewport(replay.getWidth(), replay.getHeight(), GameLogic.VISIBLE_CELLS,
+				GameLogic.VISIBLE_CELLS);
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Starts showing the turn from the beginning
+	 */
+	@Override
+	public void initGame() {
+		gui.setBoardSize(viewport.getWidth(), viewport.getHeight());
+		viewport.reset();
+		engine.setSeed(replay.getSeed());
+		engine.initGame();
+		cursor = replay.cursor();
+		hasEvent = cursor.next();
+		scheduler.start(this::tick);
+	}
+
+	@Override
+	public void finishGame() {
+		scheduler.stop();
+		engine.finishGame();
+	}
+
+	/**
+	 * Does nothing, directions are taken from the replay
+	 */
+	@Override
+	public void changeDirection(Direction direction) {
+	}
+
+	@Override
+	public void frameFinished(FrameDiff diff) {
+		gui.applyDiff(viewport.translate(diff, engine));
+	}
+
+	/**
+	 * Makes one tick of the turn
+	 * 
+	 * @return true while the turn is running
+	 */
+	private boolean tick() {
+		hasEvent = applyEvents(engine, cursor, hasEvent);
+		if (engine.getTickCount() >= replay.getTickCount()) {
+			engine.finishGame();
+			return false;
+		}
+		return engine.tick();
+	}
+
+	/**
+	 * Simulates a replay headlessly as fast as possible
+	 * 
+	 * @param replay
+	 * @param observer - receives changes of a game state, may be null
+	 * @return the engine after the turn, its tick count and finish reason match
+	 *         the replay if the engine behaves as when it was recorded
+	 */
+	public static GameEngine play(Replay replay, IGameObserver observer) {
+		GameEngine engine = createEngine(replay);
+		engine.setObserver(observer);
+		engine.setSeed(replay.getSeed());
+		engine.initGame();
+		Replay.Cursor cursor = replay.cursor();
+		boolean hasEvent = cursor.next();
+		while (engine.isGameRunning()) {
+			hasEvent = applyEvents(engine, cursor, hasEvent);
+			if (engine.getTickCount() >= replay.getTickCount()) {
+				engine.finishGame();
+				break;
+			}
+			engine.tick();
+		}
+		return engine;
+	}
+
+	/**
+	 * Checks that a replay repeats the recorded turn
+	 * 
+	 * @param replay
+	 * @param engine - engine which has played the replay
+	 * @return true if count of ticks and the finish reason match the replay
+	 */
+	public static boolean matches(Replay replay, GameEngine engine) {
+		return engine.getTickCount() == replay.getTickCount() && engine.getFinishReason() == replay.getFinishReason();
+	}
+
+	/**
+	 * Applies the change of direction of the next tick if there is one
+	 * 
+	 * @param engine
+	 * @param cursor
+	 * @param hasEvent - true if {@code cursor} is on a change not applied yet
+	 * @return true if {@code cursor} is on a change not applied yet
+	 */
+	private static boolean applyEvents(GameEngine engine, Replay.Cursor cursor, boolean hasEvent) {
+		long nextTick = engine.getTickCount() + 1;
+		while (hasEvent && cursor.tick() <= nextTick) {
+			engine.forceDirection(cursor.direction());
+			hasEvent = cursor.next();
+		}
+		return hasEvent;
+	}
+
+	/**
+	 * Creates an engine with settings of a replay
+	 * 
+	 * @param replay
+	 * @return a new engine
+	 */
+	private static GameEngine createEngine(Replay replay) {
+		GameEngine engine = new GameEngine(replay.getWidth(), replay.getHeight());
+		engine.setTicksToGenerateOrange(replay.getTicksToGenerateOrange());
+		return engine;
+	}
+
+	/**
+	 * Plays a replay headlessly several times and prints the speed, e.g. to
+	 * compare versions of the engine on recorded games
+	 * 
+	 * @param args - file of a replay, count of repeats
+	 * @throws IOException if the replay can not be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage: ReplayPlayer <replay file> [repeats]");
+			return;
+		}
+		Replay replay = Replay.read(new File(args[0]));
+		int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		long start = System.nanoTime();
+		GameEngine engine = null;
+		for (int i = 0; i < repeats; i++) {
+			engine = play(replay, null);
+		}
+		long nanos = System.nanoTime() - start;
+		System.out.printf("%d ticks, %s, length %d, %s%n", engine.getTickCount(), engine.getFinishReason(),
+				engine.getLength(), matches(replay, engine) ? "matches the recording" : "DIFFERS from the recording");
+		System.out.printf("%.1f ms per replay, %.0f ticks/s%n", nanos / 1e6 / repeats,
+				engine.getTickCount() * repeats * 1e9 / Math.max(1, nanos));
+	}
+}
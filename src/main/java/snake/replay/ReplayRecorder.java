@@ -0,0 +1,50 @@
+package snake.replay;
+
+import snake.engine.Direction;
+import snake.engine.GameEngine;
+
+/**
+ * Records turns of an engine. Changes of direction are passed from
+ * {@code IGameObserver.directionApplied}, so a recording has the directions
+ * ticks have really used, whenever a key was pressed
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ReplayRecorder {
+	// =============== Constants ===============
+	/**
+	 * Recorded changes of direction
+	 */
+	private final Replay.Encoder encoder = new Replay.Encoder();
+
+	// =============== Methods ===============
+	/**
+	 * Starts recording a new turn, should be called after
+	 * {@code GameEngine.initGame()}
+	 */
+	public void start() {
+		encoder.clear();
+	}
+
+	/**
+	 * Adds a change of direction
+	 * 
+	 * @param tick      - tick where the direction is applied
+	 * @param direction
+	 */
+	public void directionApplied(long tick, Direction direction) {
+		encoder.add(tick, direction);
+	}
+
+	/**
+	 * Returns the recording of a finished turn
+	 * 
+	 * @param engine - the engine where the turn is finished
+	 * @return the replay of the turn
+	 */
+	public Replay finish(GameEngine engine) {
+		return new Replay(engine.getWidth(), engine.getHeight(), engine.getTicksToGenerateOrange(), engine.getSeed(),
+				engine.getTickCount(), engine.getFinishReason(), encoder.toByteArray(), encoder.getCount());
+	}
+}
@@ -0,0 +1,25 @@
+package snake.results;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a history can not take more records. Unlike other write errors,
+ * a retry can not fix it
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class HistoryFullException extends IOException {
+	// =============== Constants ===============
+	private static final long serialVersionUID = 1L;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates an exception
+	 * 
+	 * @param message
+	 */
+	public HistoryFullException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,456 @@
+package snake.results;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Best results kept in memory, ordered by {@code Results.compareTo}. Results of
+ * every game are appended to {@code ResultsHistory} by {@code ResultsWriter} in
+ * background, the best ones are saved to a snapshot from time to time, so a
+ * game end does not wait for a disk and loading reads only the snapshot and the
+ * records appended after it. The default leaderboard is loaded in background
+ * too, results of games finished before it is loaded wait in a queue
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class Leaderboard {
+	// =============== Constants ===============
+	/**
+	 * Path to the binary store with results of all games
+	 */
+	public static final String STORE_PATH = System.getProperty("user.dir") + "/" + "SnakeGameResults" + ".bin";
+	/**
+	 * Path to the JSON log with results of all games, used if the store can not
+	 * be opened, and imported into an empty store
+	 */
+	public static final String LOG_PATH = System.getProperty("user.dir") + "/" + "SnakeGameResults" + ".log";
+	/**
+	 * Path to the snapshot of best results
+	 */
+	public static final String SNAPSHOT_PATH = System.getProperty("user.dir") + "/" + "SnakeGameLeaderboard" + ".json";
+	/**
+	 * How many best results are kept by default
+	 */
+	public static final int DEFAULT_CAPACITY = 10;
+	/**
+	 * How many results are appended between snapshots
+	 */
+	public static final int COMPACTION_INTERVAL = 100;
+	/**
+	 * How long {@code flushDefault()} waits for results to be written, in
+	 * seconds
+	 */
+	private static final int FLUSH_TIMEOUT_SECONDS = 10;
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(Leaderboard.class);
+	/**
+	 * Results of all games
+	 */
+	private final ResultsHistory history;
+	/**
+	 * File of the snapshot
+	 */
+	private final File snapshotFile;
+	/**
+	 * How many best results are kept
+	 */
+	private final int capacity;
+	/**
+	 * Best results, the best one first
+	 */
+	private final List<Results> best = new ArrayList<>();
+	/**
+	 * Writes results to {@code history}
+	 */
+	private final ResultsWriter writer;
+	/**
+	 * Guards writing of the snapshot, so it does not block adding results
+	 */
+	private final Object snapshotLock = new Object();
+	/**
+	 * The leaderboard of the game, completed when it is loaded and results added
+	 * before are added to it. Null until it is used, guarded by
+	 * {@code Leaderboard.class}
+	 */
+	private static CompletableFuture<Leaderboard> defaultLeaderboard;
+
+	// =============== Fields ===============
+	/**
+	 * Count of all games
+	 */
+	private long gameCount;
+	/**
+	 * Count of results appended since the last snapshot
+	 */
+	private int appendedSinceSnapshot;
+	/**
+	 * Count of added results which are not written yet
+	 */
+	private int unwrittenCount;
+	/**
+	 * Position of the history in the saved snapshot, guarded by {@code snapshotLock}
+	 */
+	private long savedLogOffset = -1;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a leaderboard and loads it from {@code history} and
+	 * {@code snapshotFile}
+	 * 
+	 * @param history      - results of all games
+	 * @param snapshotFile - snapshot of best results
+	 * @param capacity     - how many best results are kept
+	 */
+	public Leaderboard(ResultsHistory history, File snapshotFile, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.history = history;
+		this.snapshotFile = snapshotFile;
+		this.capacity = capacity;
+		load();
+		writer = new ResultsWriter(history, this::written);
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Starts loading the leaderboard stored in {@code STORE_PATH} and
+	 * {@code SNAPSHOT_PATH} in background unless it is started. Should be called
+	 * when the application starts, so no game waits for it
+	 * 
+	 * @return the leaderboard of the game, completed when it is loaded
+	 */
+	public static synchronized CompletableFuture<Leaderboard> loadDefault() {
+		if (defaultLeaderboard == null) {
+			defaultLeaderboard = CompletableFuture
+					.supplyAsync(() -> new Leaderboard(openDefaultHistory(), new File(SNAPSHOT_PATH), DEFAULT_CAPACITY));
+			defaultLeaderboard.whenComplete((leaderboard, e) -> {
+				if (e != null) {
+					LOGGER.error("Can not load the leaderboard", e);
+				}
+			});
+		}
+		return defaultLeaderboard;
+	}
+
+	/**
+	 * Returns the default leaderboard, waits until it is loaded
+	 * 
+	 * @return the leaderboard of the game
+	 */
+	public static Leaderboard getDefault() {
+		return loadDefault().join();
+	}
+
+	/**
+	 * Queues results of a finished game to be added to the default leaderboard.
+	 * Does not wait for the leaderboard to be loaded, results are added in order
+	 * of calls
+	 * 
+	 * @param results
+	 */
+	public static synchronized void addToDefault(Results results) {
+		defaultLeaderboard = loadDefault().thenApply(leaderboard -> {
+			leaderboard.add(results);
+			return leaderboard;
+		});
+	}
+
+	/**
+	 * Waits until results of the default leaderboard are written, but not longer
+	 * than {@code FLUSH_TIMEOUT_SECONDS}. Does nothing if it has not been used.
+	 * Should be called before the application exits
+	 */
+	public static void flushDefault() {
+		CompletableFuture<Leaderboard> leaderboard;
+		synchronized (Leaderboard.class) {
+			leaderboard = defaultLeaderboard;
+		}
+		if (leaderboard == null) {
+			return;
+		}
+		try {
+			Leaderboard loaded = leaderboard.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			if (!loaded.writer.flush(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				LOGGER.error("Results are not written to " + loaded.history);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			LOGGER.error("Results are not added to the leaderboard", e);
+		}
+	}
+
+	public ResultsHistory getHistory() {
+		return history;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized long getGameCount() {
+		return gameCount;
+	}
+
+	/**
+	 * Returns the best result
+	 * 
+	 * @return the best result, null if there are no results
+	 */
+	public synchronized Results getBest() {
+		return best.isEmpty() ? null : best.get(0);
+	}
+
+	/**
+	 * Returns best results
+	 * 
+	 * @return copy of best results, the best one first
+	 */
+	public synchronized List<Results> getTop() {
+		return Collections.unmodifiableList(new ArrayList<>(best));
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds results of a finished game to best results if they are good enough and
+	 * queues them to be appended to the history
+	 * 
+	 * @param results
+	 * @return true if {@code results} are the best ones
+	 */
+	public boolean add(Results results) {
+		boolean isBest;
+		synchronized (this) {
+			gameCount++;
+			unwrittenCount++;
+			isBest = insert(results) == 0;
+		}
+		writer.submit(results);
+		return isBest;
+	}
+
+	/**
+	 * Waits until all added results are written and synced to the disk
+	 */
+	public void flush() {
+		writer.flush();
+	}
+
+	/**
+	 * Passes written results of all games to {@code consumer}, reads the whole
+	 * history
+	 * 
+	 * @param consumer - receives results in order of games
+	 */
+	public void forEachInHistory(Consumer<Results> consumer) {
+		history.read(0, consumer);
+	}
+
+	/**
+	 * Saves best results to the snapshot, so records appended before are not read
+	 * on the next load. Waits until added results are written first
+	 */
+	public void compact() {
+		flush();
+		LeaderboardSnapshot snapshot;
+		synchronized (this) {
+			if (unwrittenCount > 0) {
+				// results added meanwhile are compacted by the writer later
+				return;
+			}
+			snapshot = takeSnapshot();
+		}
+		saveSnapshot(snapshot);
+	}
+
+	/**
+	 * Called by the writer when a batch of results is written, saves the snapshot
+	 * if it is time and there is nothing left to write. A batch dropped by the
+	 * writer comes here too, its results are kept only by the snapshot
+	 * 
+	 * @param count - count of written or dropped results
+	 */
+	private void written(int count) {
+		LeaderboardSnapshot snapshot;
+		synchronized (this) {
+			unwrittenCount -= count;
+			appendedSinceSnapshot += count;
+			if (unwrittenCount > 0 || appendedSinceSnapshot < COMPACTION_INTERVAL) {
+				return;
+			}
+			snapshot = takeSnapshot();
+		}
+		saveSnapshot(snapshot);
+	}
+
+	/**
+	 * Copies best results, must be called when all results are written
+	 * 
+	 * @return snapshot of the current state
+	 */
+	private LeaderboardSnapshot takeSnapshot() {
+		LeaderboardSnapshot snapshot = new LeaderboardSnapshot();
+		snapshot.setBest(new ArrayList<>(best));
+		snapshot.setGameCount(gameCount);
+		snapshot.setLogOffset(history.position());
+		snapshot.setHistoryType(history.getClass().getName());
+		appendedSinceSnapshot = 0;
+		return snapshot;
+	}
+
+	/**
+	 * Writes the snapshot to a temporary file, syncs it and renames it over the
+	 * previous one, so a failed write keeps the previous snapshot. A snapshot
+	 * older than the saved one is skipped
+	 * 
+	 * @param snapshot
+	 */
+	private void saveSnapshot(LeaderboardSnapshot snapshot) {
+		synchronized (snapshotLock) {
+			if (snapshot.getLogOffset() <= savedLogOffset) {
+				return;
+			}
+			File temp = new File(snapshotFile.getPath() + ".tmp");
+			try {
+				ResultsSerializer.serializeSnapshot(snapshot, temp);
+				Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+				savedLogOffset = snapshot.getLogOffset();
+			} catch (IOException e) {
+				LOGGER.error("Can not save snapshot to " + snapshotFile, e);
+			}
+		}
+	}
+
+	/**
+	 * Reads the snapshot, if it is taken over the same kind of history, and records
+	 * of the history appended after it
+	 */
+	private void load() {
+		long offset = 0;
+		LeaderboardSnapshot snapshot = ResultsSerializer.deserializeSnapshot(snapshotFile);
+		// the store and the log share the snapshot file, but count positions differently
+		if (snapshot != null && history.getClass().getName().equals(snapshot.getHistoryType())
+				&& snapshot.getLogOffset() <= history.position()) {
+			for (Results results : snapshot.getBest()) {
+				insert(results);
+			}
+			gameCount = snapshot.getGameCount();
+			offset = snapshot.getLogOffset();
+		} else if (history instanceof ResultsStore) {
+			// the store finds best results without reading every record
+			ResultsStore store = (ResultsStore) history;
+			for (int index : store.best(capacity)) {
+				best.add(store.get(index));
+			}
+			gameCount = store.size();
+			offset = store.size();
+		}
+		long end = history.read(offset, results -> {
+			gameCount++;
+			appendedSinceSnapshot++;
+			insert(results);
+		});
+		if (end < history.position()) {
+			try {
+				history.truncate(end);
+			} catch (IOException e) {
+				LOGGER.error("Can not drop an unfinished record of " + history, e);
+			}
+		}
+		if (gameCount == 0) {
+			importPreviousResults();
+		}
+	}
+
+	/**
+	 * Adds results saved by previous versions of the game: the JSON log if the
+	 * history is a binary store, otherwise the single best result
+	 */
+	private void importPreviousResults() {
+		List<Results> previous = new ArrayList<>();
+		File logFile = new File(LOG_PATH);
+		if (history instanceof ResultsStore && logFile.exists()) {
+			new ResultsLog(logFile).read(0, previous::add);
+		} else {
+			Results best = ResultsSerializer.deserializeExistingResults();
+			if (best != null) {
+				previous.add(best);
+			}
+		}
+		if (previous.isEmpty()) {
+			return;
+		}
+		try {
+			history.append(previous);
+			for (Results results : previous) {
+				gameCount++;
+				insert(results);
+			}
+			saveSnapshot(takeSnapshot());
+		} catch (IOException e) {
+			LOGGER.error("Can not append results to " + history, e);
+		}
+	}
+
+	/**
+	 * Opens the binary store, falls back to the JSON log if the store can not be
+	 * opened
+	 * 
+	 * @return history of the default leaderboard
+	 */
+	private static ResultsHistory openDefaultHistory() {
+		try {
+			return new ResultsStore(new File(STORE_PATH));
+		} catch (IOException e) {
+			LOGGER.error("Can not open " + STORE_PATH + ", results are saved to " + LOG_PATH, e);
+			return new ResultsLog(new File(LOG_PATH));
+		}
+	}
+
+	/**
+	 * Puts results among best ones keeping the order, drops the worst one if
+	 * there are more than {@code capacity} results. Equal results keep the order
+	 * of adding
+	 * 
+	 * @param results
+	 * @return position of {@code results}, -1 if they are not among best ones
+	 */
+	private int insert(Results results) {
+		int low = 0;
+		int high = best.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (best.get(middle).compareTo(results) >= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		if (low >= capacity) {
+			return -1;
+		}
+		best.add(low, results);
+		if (best.size() > capacity) {
+			best.remove(best.size() - 1);
+		}
+		return low;
+	}
+}
@@ -0,0 +1,65 @@
+package snake.results;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of a leaderboard saved on disk, so only records of the history appended
+ * after the snapshot are read on start
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class LeaderboardSnapshot {
+	// =============== Fields ===============
+	/**
+	 * Best results, the best one first
+	 */
+	private List<Results> best = new ArrayList<>();
+	/**
+	 * Count of games in the history before {@code logOffset}
+	 */
+	private long gameCount;
+	/**
+	 * Position of the history when the snapshot was taken
+	 */
+	private long logOffset;
+	/**
+	 * Class of the history, a position of one kind of history means nothing for
+	 * another one. Null in snapshots of older versions
+	 */
+	private String historyType;
+
+	// =============== Methods ===============
+	public List<Results> getBest() {
+		return best;
+	}
+
+	public void setBest(List<Results> best) {
+		this.best = best;
+	}
+
+	public long getGameCount() {
+		return gameCount;
+	}
+
+	public void setGameCount(long gameCount) {
+		this.gameCount = gameCount;
+	}
+
+	public long getLogOffset() {
+		return logOffset;
+	}
+
+	public void setLogOffset(long logOffset) {
+		this.logOffset = logOffset;
+	}
+
+	public String getHistoryType() {
+		return historyType;
+	}
+
+	public void setHistoryType(String historyType) {
+		this.historyType = historyType;
+	}
+}
@@ -24,6 +24,14 @@ public class Results implements Comparable<Results> {
 	 * Count of eaten oranges
 	 */
 	private int countOfEatenOranges;
+	/**
+	 * When a turn was finished, in milliseconds since the epoch
+	 */
+	private long timestamp;
+	/**
+	 * Seed of random positions of fruits
+	 */
+	private long seed;
 
 	// =============== Methods ===============
 	public void setTimeMinutes(int timeMinutes) {
@@ -42,6 +50,14 @@ public class Results implements Comparable<Results> {
 		this.countOfEatenOranges = countOfEatenOranges;
 	}
 
+	public void setTimestamp(long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
 	public int getTimeMinutes() {
 		return timeMinutes;
 	}
@@ -58,6 +74,14 @@ public class Results implements Comparable<Results> {
 		return countOfEatenOranges;
 	}
 
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
 	@Override
 	public int compareTo(Results r2) {
 		if (this.getLength() < r2.getLength()) {
@@ -75,17 +99,12 @@ public class Results implements Comparable<Results> {
 	}
 
 	/**
-	 * Check and updates if it is needed the best results with current
+	 * Queues current results to be added to the history of games and to the
+	 * leaderboard, does not wait for a disk
 	 * 
 	 * @param currentResults
-	 * @return
 	 */
-	public static boolean check(Results currentResults) {
-		Results bestResults = ResultsSerializer.deserializeExistingResults();
-		if (bestResults == null || currentResults.compareTo(bestResults) > 0) {
-			ResultsSerializer.serializeResults(currentResults);
-			return true;
-		}
-		return false;
+	public static void check(Results currentResults) {
+		Leaderboard.addToDefault(currentResults);
 	}
 }
@@ -0,0 +1,48 @@
+package snake.results;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only storage of results of all games. A position is a point between
+ * records, its unit depends on the storage
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public interface ResultsHistory {
+	/**
+	 * Adds results to the end and waits until they are synced to the disk
+	 * 
+	 * @param batch - results in order of games
+	 * @throws HistoryFullException if the storage can not take the batch
+	 * @throws IOException          if the storage can not be written
+	 */
+	void append(List<Results> batch) throws IOException;
+
+	/**
+	 * Returns position after the last record
+	 * 
+	 * @return position after the last record
+	 */
+	long position();
+
+	/**
+	 * Reads records starting from {@code position}. Damaged records are skipped
+	 * 
+	 * @param position - position of a record
+	 * @param consumer - receives records in order of appending
+	 * @return position after the last complete record
+	 */
+	long read(long position, Consumer<Results> consumer);
+
+	/**
+	 * Drops records after {@code position}, e.g. a record which was not written
+	 * completely
+	 * 
+	 * @param position
+	 * @throws IOException if the storage can not be written
+	 */
+	void truncate(long position) throws IOException;
+}
@@ -0,0 +1,161 @@
+package snake.results;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only file with results of all games, one JSON object per line. A
+ * record is never rewritten, so saving a result costs the same however long
+ * the history is. A position is an offset in bytes
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ResultsLog implements ResultsHistory {
+	// =============== Constants ===============
+	/**
+	 * File of the log
+	 */
+	private final File file;
+
+	// =============== Constructors ===============
+	public ResultsLog(File file) {
+		this.file = file;
+	}
+
+	// =============== Get/Set ===============
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns length of the log
+	 * 
+	 * @return length in bytes, 0 if the log does not exist
+	 */
+	@Override
+	public long position() {
+		return file.length();
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds results to the end of the log
+	 * 
+	 * @param results
+	 * @throws IOException if the log can not be written
+	 */
+	public void append(Results results) throws IOException {
+		append(Collections.singletonList(results));
+	}
+
+	/**
+	 * Adds results to the end of the log with one write and waits until they are
+	 * synced to the disk. A failed write is cut off, so the batch can be appended
+	 * again
+	 * 
+	 * @param batch - results in order of games
+	 * @throws IOException if the log can not be written
+	 */
+	@Override
+	public void append(List<Results> batch) throws IOException {
+		StringBuilder lines = new StringBuilder();
+		for (Results results : batch) {
+			String json = ResultsSerializer.toJson(results);
+			if (json != null) {
+				lines.append(json).append('\n');
+			}
+		}
+		try (FileOutputStream out = new FileOutputStream(file, true)) {
+			FileChannel channel = out.getChannel();
+			long start = channel.size();
+			try {
+				out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+				channel.force(false);
+			} catch (IOException e) {
+				try {
+					channel.truncate(start);
+				} catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Reads records starting from {@code offset}. Damaged records are skipped, an
+	 * unfinished last line is left for the next read
+	 * 
+	 * @param offset   - position of a record in bytes
+	 * @param consumer - receives records in order of appending
+	 * @return position after the last complete record
+	 */
+	@Override
+	public long read(long offset, Consumer<Results> consumer) {
+		if (!file.exists()) {
+			return offset;
+		}
+		long position = offset;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			long skipped = 0;
+			while (skipped < offset) {
+				long n = in.skip(offset - skipped);
+				if (n <= 0) {
+					return offset;
+				}
+				skipped += n;
+			}
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			int b;
+			long lineLength = 0;
+			while ((b = in.read()) != -1) {
+				lineLength++;
+				if (b != '\n') {
+					line.write(b);
+					continue;
+				}
+				Results results = ResultsSerializer.fromJson(new String(line.toByteArray(), StandardCharsets.UTF_8));
+				if (results != null) {
+					consumer.accept(results);
+				}
+				position += lineLength;
+				lineLength = 0;
+				line.reset();
+			}
+		} catch (IOException e) {
+			// records read so far are kept
+		}
+		return position;
+	}
+
+	/**
+	 * Cuts the log at {@code length}, e.g. to drop a record which was not written
+	 * completely
+	 * 
+	 * @param length - new length in bytes
+	 * @throws IOException if the log can not be written
+	 */
+	@Override
+	public void truncate(long length) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(length);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return file.getPath();
+	}
+}
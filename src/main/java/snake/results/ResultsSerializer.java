@@ -1,12 +1,12 @@
 package snake.results;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -35,8 +35,18 @@ public class ResultsSerializer {
 	 * @param results - current results
 	 */
 	public static void serializeResults(final Results results) {
+		serializeResults(results, new File(PATH));
+	}
+
+	/**
+	 * Save results to {@code file}
+	 * 
+	 * @param results - current results
+	 * @param file    - where to save results
+	 */
+	public static void serializeResults(final Results results, final File file) {
 		try {
-			MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(PATH), results);
+			MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, results);
 		} catch (IOException e) {
 			LOGGER.error("", e);
 		}
@@ -49,11 +59,80 @@ public class ResultsSerializer {
 	 *         does not exist or it is damaged
 	 */
 	public static Results deserializeExistingResults() {
+		return deserializeExistingResults(new File(PATH));
+	}
+
+	/**
+	 * Reads {@code file} if it exists, and returns results saved in it
+	 * 
+	 * @param file - file with saved results
+	 * @return {@code Results} object saved in {@code file}. null - if file does not
+	 *         exist or it is damaged
+	 */
+	public static Results deserializeExistingResults(final File file) {
 		try {
-			return MAPPER.readValue(PATH, Results.class);
-		} catch (JsonProcessingException e) {
+			return MAPPER.readValue(file, Results.class);
+		} catch (IOException e) {
 			// file does not exist or is not in the same directory
 			return null;
 		}
 	}
+
+	/**
+	 * Converts results to one line of JSON
+	 * 
+	 * @param results
+	 * @return JSON without line breaks, null if results can not be converted
+	 */
+	public static String toJson(final Results results) {
+		try {
+			return MAPPER.writeValueAsString(results);
+		} catch (IOException e) {
+			LOGGER.error("", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads results from JSON
+	 * 
+	 * @param json
+	 * @return {@code Results} object, null if {@code json} is damaged
+	 */
+	public static Results fromJson(final String json) {
+		try {
+			return MAPPER.readValue(json, Results.class);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Save a snapshot of a leaderboard to {@code file} and waits until it is
+	 * synced to the disk
+	 * 
+	 * @param snapshot
+	 * @param file     - where to save the snapshot
+	 * @throws IOException if the snapshot can not be written
+	 */
+	public static void serializeSnapshot(final LeaderboardSnapshot snapshot, final File file) throws IOException {
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(MAPPER.writeValueAsBytes(snapshot));
+			out.getChannel().force(true);
+		}
+	}
+
+	/**
+	 * Reads a snapshot of a leaderboard from {@code file}
+	 * 
+	 * @param file - file with a saved snapshot
+	 * @return the snapshot, null if {@code file} does not exist or it is damaged
+	 */
+	public static LeaderboardSnapshot deserializeSnapshot(final File file) {
+		try {
+			return MAPPER.readValue(file, LeaderboardSnapshot.class);
+		} catch (IOException e) {
+			return null;
+		}
+	}
 }
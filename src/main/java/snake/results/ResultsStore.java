@@ -0,0 +1,511 @@
+package snake.results;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Results of all games in a memory-mapped file of fixed-width binary records.
+ * A record is read right from the mapping by its index, so queries over the
+ * whole history create no objects and take little heap. A position is an index
+ * of a record
+ *
+ * <pre>
+ * header: int magic, int version, long count of records
+ * record: int length, int timeMinutes, int apples, int oranges, long timestamp, long seed
+ * </pre>
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ResultsStore implements ResultsHistory, Closeable {
+	// =============== Constants ===============
+	/**
+	 * Size of a record in bytes
+	 */
+	public static final int RECORD_SIZE = 32;
+	/**
+	 * Size of the header in bytes
+	 */
+	private static final int HEADER_SIZE = 16;
+	/**
+	 * First bytes of a file, "SNKR"
+	 */
+	private static final int MAGIC = 0x534E4B52;
+	/**
+	 * Version of the format
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Position of count of records in the header
+	 */
+	private static final int COUNT_OFFSET = 8;
+	/**
+	 * Positions of fields in a record
+	 */
+	private static final int LENGTH_OFFSET = 0;
+	private static final int TIME_OFFSET = 4;
+	private static final int APPLES_OFFSET = 8;
+	private static final int ORANGES_OFFSET = 12;
+	private static final int TIMESTAMP_OFFSET = 16;
+	private static final int SEED_OFFSET = 24;
+	/**
+	 * How many records fit in a new file
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+	/**
+	 * Maximal count of records, a mapping can not be longer than
+	 * {@code Integer.MAX_VALUE} bytes
+	 */
+	public static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+	/**
+	 * Count of buckets of a percentile pass, values are split in two 16-bit
+	 * halves
+	 */
+	private static final int PERCENTILE_BUCKETS = 1 << 16;
+	/**
+	 * File of the store
+	 */
+	private final File file;
+	/**
+	 * Channel of {@code file}
+	 */
+	private final FileChannel channel;
+
+	// =============== Fields ===============
+	/**
+	 * Mapping of the whole file, replaced when the file grows
+	 */
+	private volatile MappedByteBuffer buffer;
+	/**
+	 * Count of records
+	 */
+	private volatile int count;
+
+	// =============== Constructors ===============
+	/**
+	 * Opens a store, creating the file if it does not exist
+	 *
+	 * @param file
+	 * @throws IOException if the file can not be opened or is not a store
+	 */
+	@SuppressWarnings("resource")
+	public ResultsStore(File file) throws IOException {
+		this.file = file;
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		try {
+			if (channel.size() == 0) {
+				map(HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE);
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, VERSION);
+				buffer.putLong(COUNT_OFFSET, 0);
+				buffer.force();
+			} else {
+				map(channel.size());
+				if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+					throw new IOException("Not a results store: " + file);
+				}
+				long savedCount = buffer.getLong(COUNT_OFFSET);
+				if (savedCount < 0 || HEADER_SIZE + savedCount * RECORD_SIZE > channel.size()) {
+					throw new IOException("Damaged results store: " + file);
+				}
+				count = (int) savedCount;
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	// =============== Get/Set ===============
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns count of records
+	 *
+	 * @return count of records
+	 */
+	public int size() {
+		return count;
+	}
+
+	public int getLength(int index) {
+		return buffer.getInt(offsetOf(index) + LENGTH_OFFSET);
+	}
+
+	public int getTimeMinutes(int index) {
+		return buffer.getInt(offsetOf(index) + TIME_OFFSET);
+	}
+
+	public int getCountOfEatenApples(int index) {
+		return buffer.getInt(offsetOf(index) + APPLES_OFFSET);
+	}
+
+	public int getCountOfEatenOranges(int index) {
+		return buffer.getInt(offsetOf(index) + ORANGES_OFFSET);
+	}
+
+	public long getTimestamp(int index) {
+		return buffer.getLong(offsetOf(index) + TIMESTAMP_OFFSET);
+	}
+
+	public long getSeed(int index) {
+		return buffer.getLong(offsetOf(index) + SEED_OFFSET);
+	}
+
+	/**
+	 * Reads a record into a new {@code Results} object
+	 *
+	 * @param index
+	 * @return results of the record
+	 */
+	public Results get(int index) {
+		Results results = new Results();
+		results.setLength(getLength(index));
+		results.setTimeMinutes(getTimeMinutes(index));
+		results.setCountOfEatenApples(getCountOfEatenApples(index));
+		results.setCountOfEatenOranges(getCountOfEatenOranges(index));
+		results.setTimestamp(getTimestamp(index));
+		results.setSeed(getSeed(index));
+		return results;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public long position() {
+		return count;
+	}
+
+	/**
+	 * Adds records to the end of the store and syncs them to the disk. Count of
+	 * records is updated after records are synced, so a crash in the middle
+	 * leaves the store without the batch
+	 *
+	 * @param batch - results in order of games
+	 * @throws HistoryFullException if the store is full
+	 * @throws IOException          if the store can not be written
+	 */
+	@Override
+	public synchronized void append(List<Results> batch) throws IOException {
+		int newCount = count + batch.size();
+		if (newCount < 0 || newCount > MAX_RECORDS) {
+			throw new HistoryFullException("Results store is full: " + file);
+		}
+		ensureCapacity(newCount);
+		MappedByteBuffer mapping = buffer;
+		int offset = offsetOf(count);
+		for (Results results : batch) {
+			mapping.putInt(offset + LENGTH_OFFSET, results.getLength());
+			mapping.putInt(offset + TIME_OFFSET, results.getTimeMinutes());
+			mapping.putInt(offset + APPLES_OFFSET, results.getCountOfEatenApples());
+			mapping.putInt(offset + ORANGES_OFFSET, results.getCountOfEatenOranges());
+			mapping.putLong(offset + TIMESTAMP_OFFSET, results.getTimestamp());
+			mapping.putLong(offset + SEED_OFFSET, results.getSeed());
+			offset += RECORD_SIZE;
+		}
+		mapping.force();
+		mapping.putLong(COUNT_OFFSET, newCount);
+		mapping.force();
+		count = newCount;
+	}
+
+	@Override
+	public long read(long position, Consumer<Results> consumer) {
+		int end = count;
+		for (long i = Math.max(0, position); i < end; i++) {
+			consumer.accept(get((int) i));
+		}
+		return Math.max(position, end);
+	}
+
+	@Override
+	public synchronized void truncate(long position) throws IOException {
+		if (position < 0 || position >= count) {
+			return;
+		}
+		buffer.putLong(COUNT_OFFSET, position);
+		buffer.force();
+		count = (int) position;
+	}
+
+	/**
+	 * Returns indices of best records ordered like {@code Results.compareTo}
+	 *
+	 * @param n - how many records are needed
+	 * @return indices of at most {@code n} records, the best one first
+	 */
+	public int[] best(int n) {
+		int end = count;
+		int[] heap = new int[Math.min(Math.max(n, 0), end)];
+		if (heap.length == 0) {
+			return heap;
+		}
+		// min-heap of the best records, the worst of them at the root
+		int size = 0;
+		for (int i = 0; i < end; i++) {
+			if (size < heap.length) {
+				heap[size] = i;
+				siftUp(heap, size++);
+			} else if (compare(i, heap[0]) > 0) {
+				heap[0] = i;
+				siftDown(heap, 0, size);
+			}
+		}
+		// sorting by taking the worst record to the end
+		for (int last = size - 1; last > 0; last--) {
+			int worst = heap[0];
+			heap[0] = heap[last];
+			heap[last] = worst;
+			siftDown(heap, 0, last);
+		}
+		return heap;
+	}
+
+	/**
+	 * Returns a percentile of snake's length
+	 *
+	 * @param percentile - from 0 to 100
+	 * @return the smallest length which is not less than {@code percentile}
+	 *         percents of lengths, 0 if the store is empty
+	 */
+	public int lengthPercentile(double percentile) {
+		return percentile(LENGTH_OFFSET, percentile);
+	}
+
+	/**
+	 * Returns a percentile of duration of a turn
+	 *
+	 * @param percentile - from 0 to 100
+	 * @return the smallest duration in minutes which is not less than
+	 *         {@code percentile} percents of durations, 0 if the store is empty
+	 */
+	public int timePercentile(double percentile) {
+		return percentile(TIME_OFFSET, percentile);
+	}
+
+	/**
+	 * Passes indices of records finished within [from, to) to {@code consumer}
+	 *
+	 * @param fromMillis - start of the range, inclusive
+	 * @param toMillis   - end of the range, exclusive
+	 * @param consumer   - receives indices in order of games, may be null
+	 * @return count of records within the range
+	 */
+	public int scan(long fromMillis, long toMillis, IntConsumer consumer) {
+		MappedByteBuffer mapping = buffer;
+		int end = count;
+		int found = 0;
+		for (int i = 0; i < end; i++) {
+			long timestamp = mapping.getLong(offsetOf(i) + TIMESTAMP_OFFSET);
+			if (timestamp >= fromMillis && timestamp < toMillis) {
+				found++;
+				if (consumer != null) {
+					consumer.accept(i);
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Appends all records to a JSON log, e.g. for tools reading the previous
+	 * format
+	 *
+	 * @param log
+	 * @throws IOException if the log can not be written
+	 */
+	public void exportTo(ResultsLog log) throws IOException {
+		List<Results> batch = new ArrayList<>(INITIAL_CAPACITY);
+		int end = count;
+		for (int i = 0; i < end; i++) {
+			batch.add(get(i));
+			if (batch.size() == INITIAL_CAPACITY) {
+				log.append(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			log.append(batch);
+		}
+	}
+
+	/**
+	 * Appends all records of a store to a JSON log
+	 *
+	 * @param args - the JSON log, then the store, {@code Leaderboard.STORE_PATH}
+	 *             if it is omitted
+	 * @throws IOException if the store can not be read or the log can not be
+	 *                     written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: ResultsStore <log> [store]");
+			return;
+		}
+		File log = new File(args[0]);
+		File store = new File(args.length > 1 ? args[1] : Leaderboard.STORE_PATH);
+		if (!store.exists()) {
+			System.err.println("No results store: " + store);
+			return;
+		}
+		try (ResultsStore results = new ResultsStore(store)) {
+			results.exportTo(new ResultsLog(log));
+			System.out.println(results.size() + " results exported to " + log);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	@Override
+	public String toString() {
+		return file.getPath();
+	}
+
+	/**
+	 * Compares two records like {@code Results.compareTo}
+	 *
+	 * @param i
+	 * @param j
+	 * @return a positive number if record {@code i} is better
+	 */
+	private int compare(int i, int j) {
+		int byLength = Integer.compare(getLength(i), getLength(j));
+		return byLength != 0 ? byLength : Integer.compare(getTimeMinutes(i), getTimeMinutes(j));
+	}
+
+	/**
+	 * Moves the element up a min-heap of indices
+	 *
+	 * @param heap
+	 * @param i
+	 */
+	private void siftUp(int[] heap, int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (compare(heap[i], heap[parent]) >= 0) {
+				return;
+			}
+			swap(heap, i, parent);
+			i = parent;
+		}
+	}
+
+	/**
+	 * Moves the element down a min-heap of indices
+	 *
+	 * @param heap
+	 * @param i
+	 * @param size - count of elements of the heap
+	 */
+	private void siftDown(int[] heap, int i, int size) {
+		while (true) {
+			int smallest = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if (left < size && compare(heap[left], heap[smallest]) < 0) {
+				smallest = left;
+			}
+			if (right < size && compare(heap[right], heap[smallest]) < 0) {
+				smallest = right;
+			}
+			if (smallest == i) {
+				return;
+			}
+			swap(heap, i, smallest);
+			i = smallest;
+		}
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int value = array[i];
+		array[i] = array[j];
+		array[j] = value;
+	}
+
+	/**
+	 * Finds a percentile of a non-negative int field in two passes: the first one
+	 * counts values by their high 16 bits, the second one by low 16 bits within
+	 * the found high half. Takes the same memory for any count of records
+	 *
+	 * @param fieldOffset - position of the field in a record
+	 * @param percentile  - from 0 to 100
+	 * @return the percentile, 0 if the store is empty
+	 */
+	private int percentile(int fieldOffset, double percentile) {
+		MappedByteBuffer mapping = buffer;
+		int end = count;
+		if (end == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, Math.min(end, (long) Math.ceil(end * percentile / 100)));
+		int[] counts = new int[PERCENTILE_BUCKETS];
+		for (int i = 0; i < end; i++) {
+			counts[mapping.getInt(offsetOf(i) + fieldOffset) >>> 16]++;
+		}
+		int high = 0;
+		while (rank > counts[high]) {
+			rank -= counts[high++];
+		}
+		Arrays.fill(counts, 0);
+		for (int i = 0; i < end; i++) {
+			int value = mapping.getInt(offsetOf(i) + fieldOffset);
+			if (value >>> 16 == high) {
+				counts[value & 0xFFFF]++;
+			}
+		}
+		int low = 0;
+		while (rank > counts[low]) {
+			rank -= counts[low++];
+		}
+		return high << 16 | low;
+	}
+
+	/**
+	 * Makes the file big enough for {@code records} records, at least doubling it
+	 *
+	 * @param records
+	 * @throws IOException if the file can not be extended
+	 */
+	private void ensureCapacity(int records) throws IOException {
+		long needed = HEADER_SIZE + (long) records * RECORD_SIZE;
+		if (needed <= buffer.capacity()) {
+			return;
+		}
+		long grown = HEADER_SIZE + 2L * (buffer.capacity() - HEADER_SIZE);
+		map(Math.min(Math.max(needed, grown), HEADER_SIZE + (long) MAX_RECORDS * RECORD_SIZE));
+	}
+
+	/**
+	 * Maps the file, extending it to {@code size} bytes
+	 *
+	 * @param size
+	 * @throws IOException
+	 */
+	private void map(long size) throws IOException {
+		MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		buffer = mapping;
+	}
+
+	/**
+	 * Returns position of a record in the file
+	 *
+	 * @param index
+	 * @return position in bytes
+	 */
+	private static int offsetOf(int index) {
+		return HEADER_SIZE + index * RECORD_SIZE;
+	}
+}
@@ -0,0 +1,186 @@
+package snake.results;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends results to {@code ResultsHistory} on its own thread, so finishing a game
+ * does not wait for a disk. Results queued while the previous batch is written
+ * are appended together with one write and one fsync. A batch which can not be
+ * appended is kept and tried again later, results queued meanwhile wait in the
+ * queue. A batch which the history can never take is dropped and logged
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class ResultsWriter {
+	// =============== Constants ===============
+	/**
+	 * How many results may wait to be written, {@code submit()} waits when the
+	 * queue is full
+	 */
+	public static final int QUEUE_CAPACITY = 1024;
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResultsWriter.class);
+	/**
+	 * Pause before the first retry of a failed batch, in milliseconds, doubled on
+	 * every next failure
+	 */
+	private static final long MIN_RETRY_MILLIS = 100;
+	/**
+	 * Longest pause between retries of a failed batch, in milliseconds
+	 */
+	private static final long MAX_RETRY_MILLIS = 30_000;
+	/**
+	 * History where results are written
+	 */
+	private final ResultsHistory history;
+	/**
+	 * Receives count of results of every written or dropped batch, called on the
+	 * thread of the writer
+	 */
+	private final IntConsumer listener;
+	/**
+	 * Results waiting to be written
+	 */
+	private final BlockingQueue<Results> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	/**
+	 * Thread writing results
+	 */
+	private final Thread thread;
+
+	// =============== Fields ===============
+	/**
+	 * Count of submitted results, guarded by {@code this}
+	 */
+	private long submittedCount;
+	/**
+	 * Count of written or dropped results, guarded by {@code this}
+	 */
+	private long writtenCount;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a writer and starts its thread
+	 * 
+	 * @param history  - where results are written
+	 * @param listener - receives count of results of every written or dropped
+	 *                 batch
+	 */
+	public ResultsWriter(ResultsHistory history, IntConsumer listener) {
+		this.history = history;
+		this.listener = listener;
+		thread = new Thread(this::run, "snake-results");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Queues results to be written
+	 * 
+	 * @param results
+	 */
+	public void submit(Results results) {
+		synchronized (this) {
+			submittedCount++;
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				queue.put(results);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until all submitted results are written and synced to the disk or
+	 * dropped
+	 */
+	public void flush() {
+		flush(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Waits until all submitted results are written and synced to the disk or
+	 * dropped, but not longer than {@code timeout}
+	 * 
+	 * @param timeout - how long to wait
+	 * @param unit    - unit of {@code timeout}
+	 * @return false if some results are not written yet
+	 */
+	public synchronized boolean flush(long timeout, TimeUnit unit) {
+		long target = submittedCount;
+		long deadline = System.currentTimeMillis() + Math.min(unit.toMillis(timeout), Long.MAX_VALUE / 2);
+		boolean interrupted = false;
+		while (writtenCount < target && thread.isAlive()) {
+			long left = deadline - System.currentTimeMillis();
+			if (left <= 0) {
+				break;
+			}
+			try {
+				wait(left);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return writtenCount >= target;
+	}
+
+	/**
+	 * Loop of the thread
+	 */
+	private void run() {
+		List<Results> batch = new ArrayList<>();
+		long retryMillis = 0;
+		while (true) {
+			try {
+				if (batch.isEmpty()) {
+					batch.add(queue.take());
+					queue.drainTo(batch, QUEUE_CAPACITY - 1);
+				} else {
+					// the failed batch is tried alone, new results wait in the queue
+					Thread.sleep(retryMillis);
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+			try {
+				history.append(batch);
+			} catch (HistoryFullException e) {
+				LOGGER.error("Dropping " + batch.size() + " results, " + history + " can not take them", e);
+			} catch (IOException e) {
+				retryMillis = retryMillis == 0 ? MIN_RETRY_MILLIS : Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+				LOGGER.error("Can not append " + batch.size() + " results to " + history + ", retrying in "
+						+ retryMillis + " ms", e);
+				continue;
+			}
+			retryMillis = 0;
+			listener.accept(batch.size());
+			synchronized (this) {
+				writtenCount += batch.size();
+				notifyAll();
+			}
+			batch.clear();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package snake.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Direct buffers of one size reused by the thread of a server, so sending
+ * frames does not allocate native memory on every tick. Is not thread-safe
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class BufferPool {
+	// =============== Constants ===============
+	/**
+	 * Minimal size of a buffer, enough for every message but long frames
+	 */
+	public static final int MIN_BUFFER_SIZE = 256;
+	/**
+	 * Size of every buffer in bytes
+	 */
+	private final int bufferSize;
+	/**
+	 * How many free buffers are kept, extra released buffers are left to the
+	 * garbage collector
+	 */
+	private final int maxFreeCount;
+	/**
+	 * Free buffers
+	 */
+	private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+	// =============== Fields ===============
+	/**
+	 * Count of buffers allocated by the pool
+	 */
+	private long allocatedCount;
+
+	// =============== Constructors ===============
+	/**
+	 * @param bufferSize   - size of every buffer in bytes
+	 * @param maxFreeCount - how many free buffers are kept
+	 */
+	public BufferPool(int bufferSize, int maxFreeCount) {
+		if (bufferSize < MIN_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer is too small: " + bufferSize);
+		}
+		this.bufferSize = bufferSize;
+		this.maxFreeCount = maxFreeCount;
+	}
+
+	// =============== Get/Set ===============
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public int getFreeCount() {
+		return free.size();
+	}
+
+	public long getAllocatedCount() {
+		return allocatedCount;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Takes a free buffer or allocates a new one
+	 *
+	 * @return a cleared buffer
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = free.pollLast();
+		if (buffer == null) {
+			allocatedCount++;
+			return ByteBuffer.allocateDirect(bufferSize);
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns a buffer to the pool, buffers of another size are dropped
+	 *
+	 * @param buffer - buffer which is not used anymore
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer.isDirect() && buffer.capacity() == bufferSize && free.size() < maxFreeCount) {
+			free.addLast(buffer);
+		}
+	}
+}
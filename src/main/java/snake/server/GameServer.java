@@ -0,0 +1,401 @@
+package snake.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import snake.engine.GameEngine;
+import snake.engine.GameMetrics;
+
+/**
+ * Server hosting a game for every connected client. One thread accepts
+ * connections, reads turns and runs ticks of all games with a fixed timestep,
+ * waiting in a {@code Selector} between ticks, so there is no thread per
+ * client. Every tick sends each client only changes of its board, see
+ * {@code Protocol}. A client which does not read its messages is disconnected
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class GameServer {
+	// =============== Constants ===============
+	/**
+	 * Default port of the server
+	 */
+	public static final int DEFAULT_PORT = 7777;
+	/**
+	 * Default limit of connected clients
+	 */
+	public static final int DEFAULT_MAX_SESSIONS = 10_000;
+	/**
+	 * Size of pooled buffers
+	 */
+	private static final int BUFFER_SIZE = 4096;
+	/**
+	 * How many free buffers are kept by the pool
+	 */
+	private static final int MAX_FREE_BUFFERS = 1024;
+	/**
+	 * How many full buffers may wait for a client before it is disconnected
+	 */
+	private static final int MAX_PENDING_BUFFERS = 16;
+	/**
+	 * How many late ticks are run in a row before the schedule is shifted
+	 */
+	private static final int MAX_CATCH_UP_TICKS = 5;
+	/**
+	 * How long an orange waits to be generated
+	 */
+	private static final int SECONDS_TO_GENERATE_ORANGE = 5;
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(GameServer.class);
+	/**
+	 * Width of a board in cells
+	 */
+	private final int width;
+	/**
+	 * Height of a board in cells
+	 */
+	private final int height;
+	/**
+	 * Tick rate of all games
+	 */
+	private final int ticksPerSecond;
+	/**
+	 * Limit of connected clients
+	 */
+	private final int maxSessions;
+	/**
+	 * Where timings of ticks, turns and fruits are recorded
+	 */
+	private final GameMetrics metrics;
+	/**
+	 * Buffers for messages to clients
+	 */
+	private final BufferPool pool = new BufferPool(BUFFER_SIZE, MAX_FREE_BUFFERS);
+	/**
+	 * Encodes frames of all sessions
+	 */
+	private final Protocol.FrameEncoder encoder = new Protocol.FrameEncoder();
+	/**
+	 * Buffer receiving commands of clients
+	 */
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(512);
+	/**
+	 * Connected clients
+	 */
+	private final List<GameSession> sessions = new ArrayList<>();
+
+	// =============== Fields ===============
+	/**
+	 * Waits for connections, commands and writable sockets
+	 */
+	private Selector selector;
+	/**
+	 * Socket accepting connections
+	 */
+	private ServerSocketChannel serverChannel;
+	/**
+	 * Thread of the server, null if the server is stopped
+	 */
+	private Thread thread;
+	/**
+	 * Count of connected clients, for other threads
+	 */
+	private volatile int sessionCount;
+
+	// =============== Constructors ===============
+	/**
+	 * @param width          - width of a board in cells
+	 * @param height         - height of a board in cells
+	 * @param ticksPerSecond - tick rate of all games
+	 * @param maxSessions    - limit of connected clients
+	 * @param metrics        - where timings of ticks, turns and fruits are
+	 *                       recorded
+	 */
+	public GameServer(int width, int height, int ticksPerSecond, int maxSessions, GameMetrics metrics) {
+		if (ticksPerSecond < 1 || ticksPerSecond > 1000) {
+			throw new IllegalArgumentException("Unsupported tick rate: " + ticksPerSecond);
+		}
+		this.width = width;
+		this.height = height;
+		this.ticksPerSecond = ticksPerSecond;
+		this.maxSessions = maxSessions;
+		this.metrics = metrics;
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Returns the port the server listens on
+	 *
+	 * @return port, useful if the server was started on port 0
+	 */
+	public synchronized int getPort() {
+		return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+	}
+
+	public int getSessionCount() {
+		return sessionCount;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Starts accepting clients on its own thread
+	 *
+	 * @param address - address to listen on
+	 * @throws IOException if the address can not be bound
+	 */
+	public synchronized void start(InetSocketAddress address) throws IOException {
+		if (thread != null) {
+			throw new IllegalStateException("Server is already started");
+		}
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.configureBlocking(false);
+		serverChannel.bind(address, 1024);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		thread = new Thread(this::run, "snake-server");
+		thread.start();
+		LOGGER.info("Listening on {}", serverChannel.getLocalAddress());
+	}
+
+	/**
+	 * Stops the thread, disconnects all clients and waits until it is done
+	 */
+	public void stop() {
+		Thread current;
+		synchronized (this) {
+			current = thread;
+			thread = null;
+		}
+		if (current == null) {
+			return;
+		}
+		current.interrupt();
+		selector.wakeup();
+		boolean interrupted = false;
+		while (current.isAlive()) {
+			try {
+				current.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Loop of the thread: waits for sockets until the next deadline, then runs
+	 * ticks of all games
+	 */
+	private void run() {
+		long periodNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+		long deadline = System.nanoTime() + periodNanos;
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				long now = System.nanoTime();
+				if (now < deadline) {
+					// rounded up, so the loop does not spin during the last millisecond
+					selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - now + 999_999)));
+					handleSelected();
+					continue;
+				}
+				int caughtUp = 0;
+				while (now >= deadline && caughtUp < MAX_CATCH_UP_TICKS) {
+					tickAll();
+					long finished = System.nanoTime();
+					metrics.tickFinished(now - deadline, finished - now);
+					deadline += periodNanos;
+					caughtUp++;
+					now = finished;
+				}
+				if (now >= deadline) {
+					// too late to catch up, continue from now on
+					deadline = now + periodNanos;
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.error("Server has failed", e);
+		} finally {
+			closeAll();
+		}
+	}
+
+	/**
+	 * Handles sockets chosen by the selector
+	 *
+	 * @throws IOException if the server socket fails
+	 */
+	private void handleSelected() throws IOException {
+		Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			if (!key.isValid()) {
+				continue;
+			}
+			if (key.isAcceptable()) {
+				accept();
+				continue;
+			}
+			GameSession session = (GameSession) key.attachment();
+			try {
+				if (key.isReadable() && !read(session)) {
+					session.close();
+					continue;
+				}
+				if (key.isValid() && key.isWritable() && !session.flush()) {
+					session.close();
+				}
+			} catch (IOException e) {
+				session.close();
+			}
+		}
+	}
+
+	/**
+	 * Accepts all waiting connections, starts their games. A connection which
+	 * fails while its game is started is closed alone
+	 *
+	 * @throws IOException if the server socket fails
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			if (sessions.size() >= maxSessions) {
+				closeChannel(channel);
+				continue;
+			}
+			GameSession session = null;
+			try {
+				channel.configureBlocking(false);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+				GameEngine engine = new GameEngine(width, height);
+				engine.setTicksToGenerateOrange(SECONDS_TO_GENERATE_ORANGE * ticksPerSecond);
+				session = new GameSession(channel, key, engine, pool, encoder, metrics, MAX_PENDING_BUFFERS);
+				key.attach(session);
+				sessions.add(session);
+				session.welcome(ticksPerSecond);
+				if (!session.flush()) {
+					session.close();
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Can not start a game for a client: {}", e.toString());
+				if (session != null) {
+					session.close();
+				} else {
+					closeChannel(channel);
+				}
+			}
+		}
+		sessionCount = sessions.size();
+	}
+
+	/**
+	 * Closes a connection which has no game
+	 *
+	 * @param channel
+	 */
+	private void closeChannel(SocketChannel channel) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			LOGGER.warn("Can not close a connection", e);
+		}
+	}
+
+	/**
+	 * Reads commands of a client
+	 *
+	 * @param session
+	 * @return false if the client has closed the connection
+	 * @throws IOException if the connection is broken
+	 */
+	private boolean read(GameSession session) throws IOException {
+		int count;
+		do {
+			readBuffer.clear();
+			count = session.getChannel().read(readBuffer);
+			readBuffer.flip();
+			session.received(readBuffer);
+		} while (count == readBuffer.capacity());
+		return count >= 0;
+	}
+
+	/**
+	 * Runs a tick of every game, sends the changes and drops disconnected
+	 * clients
+	 */
+	private void tickAll() {
+		int kept = 0;
+		for (int i = 0; i < sessions.size(); i++) {
+			GameSession session = sessions.get(i);
+			if (!session.getChannel().isOpen()) {
+				continue;
+			}
+			session.tick();
+			try {
+				if (!session.flush()) {
+					session.close();
+					continue;
+				}
+			} catch (IOException e) {
+				session.close();
+				continue;
+			}
+			sessions.set(kept++, session);
+		}
+		sessions.subList(kept, sessions.size()).clear();
+		sessionCount = kept;
+	}
+
+	/**
+	 * Disconnects all clients and closes the server socket
+	 */
+	private void closeAll() {
+		for (GameSession session : sessions) {
+			session.close();
+		}
+		sessions.clear();
+		sessionCount = 0;
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			LOGGER.error("Can not close the server socket", e);
+		}
+	}
+
+	/**
+	 * @param args - port, ticks per second, width, height
+	 * @throws IOException if the port can not be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int ticksPerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int width = args.length > 2 ? Integer.parseInt(args[2]) : 25;
+		int height = args.length > 3 ? Integer.parseInt(args[3]) : width;
+		GameMetrics metrics = new GameMetrics();
+		metrics.register();
+		GameServer server = new GameServer(width, height, ticksPerSecond, DEFAULT_MAX_SESSIONS, metrics);
+		server.start(new InetSocketAddress(port));
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+	}
+}
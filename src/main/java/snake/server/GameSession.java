@@ -0,0 +1,298 @@
+package snake.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+import snake.engine.FrameDiff;
+import snake.engine.FruitKind;
+import snake.engine.GameEngine;
+import snake.engine.GameMetrics;
+import snake.engine.InputQueue;
+import snake.interfaces.IGameLogic;
+import snake.interfaces.IGameObserver;
+
+/**
+ * Game of one client of {@code GameServer}. Turns received from the client are
+ * queued and applied by ticks, changes of a board made by a tick are encoded
+ * to buffers of the pool and sent without blocking. Is used only by the thread
+ * of the server
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class GameSession implements IGameLogic, IGameObserver {
+	// =============== Constants ===============
+	/**
+	 * Directions by their ordinals
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Connection of the client
+	 */
+	private final SocketChannel channel;
+	/**
+	 * Key of {@code channel} in the selector of the server
+	 */
+	private final SelectionKey key;
+	/**
+	 * Game of the client
+	 */
+	private final GameEngine engine;
+	/**
+	 * Buffers for messages
+	 */
+	private final BufferPool pool;
+	/**
+	 * Encodes frames, shared by sessions of the server
+	 */
+	private final Protocol.FrameEncoder encoder;
+	/**
+	 * Where timings and fruits are recorded
+	 */
+	private final GameMetrics metrics;
+	/**
+	 * Turns received from the client and not applied yet
+	 */
+	private final InputQueue input = new InputQueue();
+	/**
+	 * Buffers ready to be sent, the first one may be sent partly
+	 */
+	private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+	/**
+	 * How many buffers may wait for a slow client before it is disconnected
+	 */
+	private final int maxPendingCount;
+
+	// =============== Fields ===============
+	/**
+	 * Buffer receiving messages, null if there are no unsent messages
+	 */
+	private ByteBuffer current;
+	/**
+	 * Why the last turn is finished, null while it is running
+	 */
+	private FinishReason finishReason;
+	/**
+	 * Count of bytes sent to the client
+	 */
+	private long sentBytes;
+
+	// =============== Constructors ===============
+	/**
+	 * @param channel         - connection of the client
+	 * @param key             - key of {@code channel} in the selector
+	 * @param engine          - game of the client
+	 * @param pool            - buffers for messages
+	 * @param encoder         - encodes frames
+	 * @param metrics         - where timings and fruits are recorded
+	 * @param maxPendingCount - how many buffers may wait for a slow client
+	 */
+	public GameSession(SocketChannel channel, SelectionKey key, GameEngine engine, BufferPool pool,
+			Protocol.FrameEncoder encoder, GameMetrics metrics, int maxPendingCount) {
+		this.channel = channel;
+		this.key = key;
+		this.engine = engine;
+		this.pool = pool;
+		this.encoder = encoder;
+		this.metrics = metrics;
+		this.maxPendingCount = maxPendingCount;
+		engine.setObserver(this);
+	}
+
+	// =============== Get/Set ===============
+	public SocketChannel getChannel() {
+		return channel;
+	}
+
+	public GameEngine getEngine() {
+		return engine;
+	}
+
+	public long getSentBytes() {
+		return sentBytes;
+	}
+
+	/**
+	 * Checks if the client has not received all messages yet
+	 *
+	 * @return true if there are unsent messages
+	 */
+	public boolean hasPending() {
+		return current != null || !pending.isEmpty();
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Sends sizes of a board and starts the first turn
+	 *
+	 * @param ticksPerSecond - tick rate of the server
+	 */
+	public void welcome(int ticksPerSecond) {
+		Protocol.putWelcome(reserve(Protocol.WELCOME_SIZE), engine.getWidth(), engine.getHeight(), ticksPerSecond);
+		initGame();
+	}
+
+	@Override
+	public void initGame() {
+		input.clear();
+		finishReason = null;
+		engine.initGame();
+	}
+
+	@Override
+	public void changeDirection(Direction direction) {
+		if (!input.offer(direction, System.nanoTime())) {
+			metrics.inputDropped();
+		}
+	}
+
+	@Override
+	public void finishGame() {
+		if (engine.isGameRunning()) {
+			engine.finishGame();
+		}
+	}
+
+	/**
+	 * Handles commands of the client
+	 *
+	 * @param commands - received bytes, read completely
+	 */
+	public void received(ByteBuffer commands) {
+		while (commands.hasRemaining()) {
+			int command = commands.get();
+			if (command >= 0 && command < DIRECTIONS.length) {
+				changeDirection(DIRECTIONS[command]);
+			} else if (command == Protocol.RESTART && !engine.isGameRunning()) {
+				initGame();
+			}
+		}
+	}
+
+	/**
+	 * Applies the first queued turn which changes direction of the snake, then
+	 * makes a tick. Does nothing if a turn is finished
+	 */
+	public void tick() {
+		if (!engine.isGameRunning()) {
+			return;
+		}
+		Direction current = engine.getCurrentDirection();
+		Direction turn;
+		while ((turn = input.poll()) != null) {
+			if (turn != current && turn != current.getOppositeDirection()) {
+				engine.changeDirection(turn);
+				metrics.inputApplied(System.nanoTime() - input.getPolledPressedAt());
+				break;
+			}
+		}
+		if (!engine.tick() && finishReason != null) {
+			// sent after the last frame, so the client sees the crash first
+			Protocol.putFinished(reserve(Protocol.FINISHED_SIZE), finishReason, engine.getLength(),
+					engine.getCountOfEatenApples(), engine.getCountOfEatenOranges());
+		}
+	}
+
+	@Override
+	public void frameFinished(FrameDiff diff) {
+		encoder.encode(reserve(Protocol.frameSize(diff)), (int) engine.getTickCount(), diff);
+	}
+
+	@Override
+	public void gameFinished(FinishReason reason, int x, int y) {
+		finishReason = reason;
+	}
+
+	@Override
+	public void fruitPlaced(FruitKind kind, int x, int y) {
+		metrics.fruitSpawned();
+	}
+
+	@Override
+	public void fruitEaten(FruitKind kind) {
+		metrics.fruitEaten(kind);
+	}
+
+	/**
+	 * Sends as many messages as the socket accepts without blocking, waits for
+	 * the socket to become writable if some are left
+	 *
+	 * @return false if the client is too slow and must be disconnected
+	 * @throws IOException if the connection is broken
+	 */
+	public boolean flush() throws IOException {
+		if (current != null) {
+			current.flip();
+			pending.addLast(current);
+			current = null;
+		}
+		while (!pending.isEmpty()) {
+			ByteBuffer buffer = pending.peekFirst();
+			sentBytes += channel.write(buffer);
+			if (buffer.hasRemaining()) {
+				setInterest(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return pending.size() <= maxPendingCount;
+			}
+			pending.pollFirst();
+			pool.release(buffer);
+		}
+		setInterest(SelectionKey.OP_READ);
+		return true;
+	}
+
+	/**
+	 * Finishes the turn, returns buffers to the pool and closes the connection
+	 */
+	public void close() {
+		finishGame();
+		if (current != null) {
+			pool.release(current);
+			current = null;
+		}
+		while (!pending.isEmpty()) {
+			pool.release(pending.pollFirst());
+		}
+		key.cancel();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// the connection is dropped anyway
+		}
+	}
+
+	/**
+	 * Returns a buffer with {@code size} bytes remaining for a message. A full
+	 * buffer is queued for sending and a new one is taken from the pool, a message
+	 * longer than buffers of the pool gets a buffer of its own
+	 *
+	 * @param size - size of the message
+	 * @return buffer to put the message to
+	 */
+	private ByteBuffer reserve(int size) {
+		if (current != null && current.remaining() >= size) {
+			return current;
+		}
+		if (current != null) {
+			current.flip();
+			pending.addLast(current);
+		}
+		current = size > pool.getBufferSize() ? ByteBuffer.allocateDirect(size) : pool.acquire();
+		return current;
+	}
+
+	/**
+	 * Changes operations the selector waits for, if they are different
+	 *
+	 * @param ops
+	 */
+	private void setInterest(int ops) {
+		if (key.interestOps() != ops) {
+			key.interestOps(ops);
+		}
+	}
+}
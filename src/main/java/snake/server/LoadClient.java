@@ -0,0 +1,349 @@
+package snake.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import snake.engine.CellContent;
+import snake.engine.Direction;
+
+/**
+ * Load generator for {@code GameServer}. Opens many connections from one
+ * thread, every connection plays its game by turning towards the apple and
+ * restarts finished turns. Prints received frames and bytes every second
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class LoadClient {
+	// =============== Constants ===============
+	/**
+	 * Cached {@code Direction.values()}
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/**
+	 * Waits for connected and readable sockets
+	 */
+	private final Selector selector;
+	/**
+	 * Buffer sending commands
+	 */
+	private final ByteBuffer command = ByteBuffer.allocateDirect(1);
+	/**
+	 * All connections
+	 */
+	private final List<Connection> connections = new ArrayList<>();
+
+	// =============== Fields ===============
+	/**
+	 * Count of received frames
+	 */
+	private long frameCount;
+	/**
+	 * Count of received bytes
+	 */
+	private long receivedBytes;
+	/**
+	 * Count of finished turns
+	 */
+	private long finishedCount;
+	/**
+	 * Count of connections closed by the server
+	 */
+	private int droppedCount;
+
+	// =============== Constructors ===============
+	/**
+	 * Starts connecting to a server
+	 *
+	 * @param address - address of the server
+	 * @param count   - count of connections
+	 * @throws IOException if a socket can not be opened
+	 */
+	public LoadClient(InetSocketAddress address, int count) throws IOException {
+		selector = Selector.open();
+		for (int i = 0; i < count; i++) {
+			SocketChannel channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			Connection connection = new Connection(channel);
+			connections.add(connection);
+			if (channel.connect(address)) {
+				channel.register(selector, SelectionKey.OP_READ, connection);
+			} else {
+				channel.register(selector, SelectionKey.OP_CONNECT, connection);
+			}
+		}
+	}
+
+	// =============== Get/Set ===============
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	public long getReceivedBytes() {
+		return receivedBytes;
+	}
+
+	public long getFinishedCount() {
+		return finishedCount;
+	}
+
+	/**
+	 * Returns count of connections which are open
+	 *
+	 * @return count of open connections
+	 */
+	public int getOpenCount() {
+		int count = 0;
+		for (Connection connection : connections) {
+			if (connection.channel.isConnected()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Plays until {@code nanos} pass
+	 *
+	 * @param nanos - how long to play
+	 * @throws IOException if the selector fails
+	 */
+	public void run(long nanos) throws IOException {
+		long end = System.nanoTime() + nanos;
+		long now;
+		while ((now = System.nanoTime()) < end) {
+			selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - now)));
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				Connection connection = (Connection) key.attachment();
+				try {
+					if (key.isConnectable()) {
+						connection.channel.finishConnect();
+						key.interestOps(SelectionKey.OP_READ);
+					} else if (key.isReadable()) {
+						read(connection);
+					}
+				} catch (IOException e) {
+					drop(connection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Disconnects all connections
+	 */
+	public void close() {
+		for (Connection connection : connections) {
+			try {
+				connection.channel.close();
+			} catch (IOException e) {
+				// closed anyway
+			}
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			// closed anyway
+		}
+	}
+
+	/**
+	 * Reads and handles complete messages of a connection
+	 *
+	 * @param connection
+	 * @throws IOException if the connection is broken
+	 */
+	private void read(Connection connection) throws IOException {
+		int count = connection.channel.read(connection.in);
+		if (count < 0) {
+			drop(connection);
+			return;
+		}
+		receivedBytes += count;
+		ByteBuffer in = connection.in;
+		in.flip();
+		while (in.remaining() >= Protocol.HEADER_SIZE) {
+			int start = in.position();
+			byte type = in.get(start);
+			int length = in.getShort(start + 1) & 0xFFFF;
+			if (in.remaining() < Protocol.HEADER_SIZE + length) {
+				break;
+			}
+			in.position(start + Protocol.HEADER_SIZE);
+			handle(connection, type, in);
+			in.position(start + Protocol.HEADER_SIZE + length);
+		}
+		in.compact();
+		if (!in.hasRemaining()) {
+			// a message longer than the buffer
+			ByteBuffer larger = ByteBuffer.allocate(Protocol.MAX_MESSAGE_SIZE);
+			in.flip();
+			larger.put(in);
+			connection.in = larger;
+		}
+	}
+
+	/**
+	 * Handles one message
+	 *
+	 * @param connection
+	 * @param type       - type of the message
+	 * @param in         - payload of the message
+	 * @throws IOException if a command can not be sent
+	 */
+	private void handle(Connection connection, byte type, ByteBuffer in) throws IOException {
+		if (type == Protocol.WELCOME) {
+			connection.width = in.getInt();
+		} else if (type == Protocol.FRAME) {
+			frameCount++;
+			in.getInt();
+			int changes = in.getShort() & 0xFFFF;
+			for (int i = 0; i < changes; i++) {
+				if (in.get() == Protocol.SET) {
+					int cell = in.getInt();
+					CellContent content = CellContent.valueOf(in.get());
+					if (content == CellContent.HEAD) {
+						connection.head = cell;
+					} else if (content == CellContent.APPLE) {
+						connection.apple = cell;
+					}
+				} else {
+					in.getInt();
+					in.getInt();
+				}
+			}
+			steer(connection);
+		} else if (type == Protocol.FINISHED) {
+			finishedCount++;
+			connection.direction = Direction.RIGHT;
+			send(connection, Protocol.RESTART);
+		}
+	}
+
+	/**
+	 * Turns a snake towards the apple, never backwards
+	 *
+	 * @param connection
+	 * @throws IOException if the command can not be sent
+	 */
+	private void steer(Connection connection) throws IOException {
+		int width = connection.width;
+		int dx = connection.apple % width - connection.head % width;
+		int dy = connection.apple / width - connection.head / width;
+		Direction wanted;
+		if (dx != 0) {
+			wanted = dx > 0 ? Direction.RIGHT : Direction.LEFT;
+		} else {
+			wanted = dy > 0 ? Direction.DOWN : Direction.UP;
+		}
+		if (wanted == connection.direction.getOppositeDirection()) {
+			wanted = dy >= 0 ? Direction.DOWN : Direction.UP;
+			if (wanted == connection.direction || wanted == connection.direction.getOppositeDirection()) {
+				wanted = DIRECTIONS[(connection.direction.ordinal() + 1) % DIRECTIONS.length];
+			}
+		}
+		if (wanted != connection.direction) {
+			connection.direction = wanted;
+			send(connection, (byte) wanted.ordinal());
+		}
+	}
+
+	/**
+	 * Sends a command, a command which does not fit the socket is dropped
+	 *
+	 * @param connection
+	 * @param value      - the command
+	 * @throws IOException if the connection is broken
+	 */
+	private void send(Connection connection, byte value) throws IOException {
+		command.clear();
+		command.put(value);
+		command.flip();
+		connection.channel.write(command);
+	}
+
+	/**
+	 * Closes a connection dropped by the server
+	 *
+	 * @param connection
+	 */
+	private void drop(Connection connection) {
+		droppedCount++;
+		try {
+			connection.channel.close();
+		} catch (IOException e) {
+			// closed anyway
+		}
+	}
+
+	/**
+	 * @param args - host, port, count of connections, seconds to play
+	 * @throws IOException if the server can not be reached
+	 */
+	public static void main(String[] args) throws IOException {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+		int count = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+		LoadClient client = new LoadClient(new InetSocketAddress(host, port), count);
+		long previousFrames = 0;
+		long previousBytes = 0;
+		for (int i = 0; i < seconds; i++) {
+			client.run(TimeUnit.SECONDS.toNanos(1));
+			System.out.printf("%d connected, %d frames/s, %d KB/s, %d turns finished, %d dropped%n",
+					client.getOpenCount(), client.frameCount - previousFrames,
+					(client.receivedBytes - previousBytes) / 1024, client.finishedCount, client.droppedCount);
+			previousFrames = client.frameCount;
+			previousBytes = client.receivedBytes;
+		}
+		client.close();
+	}
+
+	/**
+	 * State of one connection
+	 */
+	private static final class Connection {
+		/**
+		 * Socket of the connection
+		 */
+		final SocketChannel channel;
+		/**
+		 * Received bytes which are not handled yet
+		 */
+		ByteBuffer in = ByteBuffer.allocate(1024);
+		/**
+		 * Width of a board in cells
+		 */
+		int width = 1;
+		/**
+		 * Cell of snake's head
+		 */
+		int head;
+		/**
+		 * Cell of the apple
+		 */
+		int apple;
+		/**
+		 * Direction sent last
+		 */
+		Direction direction = Direction.RIGHT;
+
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+	}
+}
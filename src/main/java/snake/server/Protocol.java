@@ -0,0 +1,241 @@
+package snake.server;
+
+import java.nio.ByteBuffer;
+
+import snake.engine.CellContent;
+import snake.engine.FinishReason;
+import snake.engine.FrameDiff;
+
+/**
+ * Binary protocol between {@code GameServer} and its clients. A client sends
+ * single bytes: an ordinal of {@code Direction} to turn or {@code RESTART} to
+ * start a new turn after the previous one is finished. A server sends messages
+ * of a type byte, an unsigned short length of the payload and the payload. All
+ * numbers are big-endian
+ *
+ * <ul>
+ * <li>{@code WELCOME} - width, height and ticks per second as ints</li>
+ * <li>{@code FRAME} - tick as an int, unsigned short count of changes, then
+ * changes: {@code SET}, cell as an int and ordinal of {@code CellContent} as a
+ * byte, or {@code MOVE}, cell from and cell to as ints</li>
+ * <li>{@code FINISHED} - ordinal of {@code FinishReason} as a byte, length,
+ * eaten apples and eaten oranges as ints</li>
+ * </ul>
+ *
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class Protocol {
+	// =============== Constants ===============
+	/**
+	 * Command of a client to start a new turn
+	 */
+	public static final byte RESTART = 4;
+	/**
+	 * Message with sizes of a board, sent once after connecting
+	 */
+	public static final byte WELCOME = 0;
+	/**
+	 * Message with changes of a board made by a tick
+	 */
+	public static final byte FRAME = 1;
+	/**
+	 * Message sent when a turn is finished
+	 */
+	public static final byte FINISHED = 2;
+	/**
+	 * Type of a change setting content of a cell
+	 */
+	public static final byte SET = 0;
+	/**
+	 * Type of a change moving a part of a body
+	 */
+	public static final byte MOVE = 1;
+	/**
+	 * Size of a message header: type and length
+	 */
+	public static final int HEADER_SIZE = 3;
+	/**
+	 * Maximal size of a payload
+	 */
+	public static final int MAX_PAYLOAD_SIZE = 0xFFFF;
+	/**
+	 * Size of a {@code FRAME} payload without changes
+	 */
+	private static final int FRAME_SIZE = 6;
+	/**
+	 * Size of a {@code MOVE} change
+	 */
+	private static final int MOVE_SIZE = 9;
+	/**
+	 * Maximal size of a message
+	 */
+	public static final int MAX_MESSAGE_SIZE = HEADER_SIZE + MAX_PAYLOAD_SIZE;
+	/**
+	 * Size of a {@code WELCOME} message
+	 */
+	public static final int WELCOME_SIZE = HEADER_SIZE + 12;
+	/**
+	 * Size of a {@code FINISHED} message
+	 */
+	public static final int FINISHED_SIZE = HEADER_SIZE + 13;
+	/**
+	 * Maximal count of changes in one {@code FRAME} message
+	 */
+	private static final int MAX_CHANGES = (MAX_PAYLOAD_SIZE - FRAME_SIZE) / MOVE_SIZE;
+
+	// =============== Constructors ===============
+	private Protocol() {
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Returns size of {@code FRAME} messages with all changes of a diff
+	 *
+	 * @param diff
+	 * @return size in bytes
+	 */
+	public static int frameSize(FrameDiff diff) {
+		int messages = Math.max(1, (diff.size() + MAX_CHANGES - 1) / MAX_CHANGES);
+		return messages * (HEADER_SIZE + FRAME_SIZE) + diff.size() * MOVE_SIZE;
+	}
+
+	/**
+	 * Puts a {@code WELCOME} message
+	 *
+	 * @param buffer
+	 * @param width          - width of a board in cells
+	 * @param height         - height of a board in cells
+	 * @param ticksPerSecond
+	 */
+	public static void putWelcome(ByteBuffer buffer, int width, int height, int ticksPerSecond) {
+		putHeader(buffer, WELCOME, WELCOME_SIZE - HEADER_SIZE);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putInt(ticksPerSecond);
+	}
+
+	/**
+	 * Puts a {@code FINISHED} message
+	 *
+	 * @param buffer
+	 * @param reason        - why a turn is finished
+	 * @param length        - length of the snake
+	 * @param eatenApples
+	 * @param eatenOranges
+	 */
+	public static void putFinished(ByteBuffer buffer, FinishReason reason, int length, int eatenApples,
+			int eatenOranges) {
+		putHeader(buffer, FINISHED, FINISHED_SIZE - HEADER_SIZE);
+		buffer.put((byte) reason.ordinal());
+		buffer.putInt(length);
+		buffer.putInt(eatenApples);
+		buffer.putInt(eatenOranges);
+	}
+
+	/**
+	 * Puts a message header
+	 *
+	 * @param buffer
+	 * @param type
+	 * @param length - length of the payload
+	 */
+	private static void putHeader(ByteBuffer buffer, byte type, int length) {
+		buffer.put(type);
+		buffer.putShort((short) length);
+	}
+
+	/**
+	 * Puts {@code FRAME} messages with changes of a diff, a long diff is split
+	 * into several messages. Is reused, so encoding allocates nothing
+	 */
+	public static final class FrameEncoder implements FrameDiff.Handler {
+		/**
+		 * Buffer receiving messages
+		 */
+		private ByteBuffer buffer;
+		/**
+		 * Number of the tick
+		 */
+		private int tick;
+		/**
+		 * Position of the header of the current message, -1 if no message is open
+		 */
+		private int start = -1;
+		/**
+		 * Count of changes in the current message
+		 */
+		private int count;
+
+		/**
+		 * Puts {@code FRAME} messages with all changes of a diff, an empty message if
+		 * there are no changes. {@code buffer} must have {@code frameSize(diff)}
+		 * bytes remaining
+		 *
+		 * @param buffer
+		 * @param tick   - number of the tick
+		 * @param diff   - changes of a board
+		 */
+		public void encode(ByteBuffer buffer, int tick, FrameDiff diff) {
+			this.buffer = buffer;
+			this.tick = tick;
+			start = -1;
+			diff.forEach(this);
+			if (start < 0) {
+				open();
+			}
+			close();
+			this.buffer = null;
+		}
+
+		@Override
+		public void set(int cell, CellContent content) {
+			begin();
+			buffer.put(SET);
+			buffer.putInt(cell);
+			buffer.put((byte) content.ordinal());
+		}
+
+		@Override
+		public void move(int from, int to) {
+			begin();
+			buffer.put(MOVE);
+			buffer.putInt(from);
+			buffer.putInt(to);
+		}
+
+		/**
+		 * Puts the length and the count of changes of the current message
+		 */
+		private void close() {
+			buffer.putShort(start + 1, (short) (buffer.position() - start - HEADER_SIZE));
+			buffer.putShort(start + HEADER_SIZE + 4, (short) count);
+		}
+
+		/**
+		 * Starts a new message before a change if it is needed
+		 */
+		private void begin() {
+			if (start >= 0 && count == MAX_CHANGES) {
+				close();
+				start = -1;
+			}
+			if (start < 0) {
+				open();
+			}
+			count++;
+		}
+
+		/**
+		 * Puts the header of a message, its length and count of changes are put by
+		 * {@code close()}
+		 */
+		private void open() {
+			start = buffer.position();
+			count = 0;
+			putHeader(buffer, FRAME, 0);
+			buffer.putInt(tick);
+			buffer.putShort((short) 0);
+		}
+	}
+}
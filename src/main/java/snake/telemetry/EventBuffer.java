@@ -0,0 +1,172 @@
+package snake.telemetry;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of events with many producers and one consumer. A
+ * slot has a sequence telling whether it is free for a producer or published
+ * for the consumer, so a producer only claims a position with one CAS and
+ * never waits. An event offered to a full buffer is dropped and counted.
+ * Events are kept in arrays of primitives, nothing is allocated
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+final class EventBuffer {
+	// =============== Constants ===============
+	/**
+	 * Count of slots minus 1, count of slots is a power of 2
+	 */
+	private final int mask;
+	/**
+	 * Sequences of slots: a slot at position {@code p} is free when its sequence
+	 * is {@code p} and published when it is {@code p + 1}
+	 */
+	private final AtomicLongArray sequences;
+	/**
+	 * Kinds of events by their ordinals
+	 */
+	private final byte[] types;
+	/**
+	 * Details of events
+	 */
+	private final byte[] details;
+	/**
+	 * Times of events
+	 */
+	private final long[] times;
+	/**
+	 * Ticks of events
+	 */
+	private final long[] ticks;
+	/**
+	 * X coordinates of events
+	 */
+	private final int[] xs;
+	/**
+	 * Y coordinates of events
+	 */
+	private final int[] ys;
+	/**
+	 * Next position claimed by a producer
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * Count of dropped events
+	 */
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	// =============== Fields ===============
+	/**
+	 * Next position read by the consumer, used only by it
+	 */
+	private long head;
+
+	// =============== Constructors ===============
+	/**
+	 * @param capacity - count of events the buffer can keep, rounded up to a
+	 *                 power of 2
+	 */
+	EventBuffer(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Wrong capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		size = Math.max(size, 1);
+		mask = size - 1;
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		types = new byte[size];
+		details = new byte[size];
+		times = new long[size];
+		ticks = new long[size];
+		xs = new int[size];
+		ys = new int[size];
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Returns count of events dropped since the buffer is created
+	 * 
+	 * @return count of dropped events
+	 */
+	long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Adds an event unless the buffer is full. May be called from any thread
+	 * 
+	 * @param type
+	 * @param detail
+	 * @param time
+	 * @param tick
+	 * @param x
+	 * @param y
+	 * @return false if the event is dropped
+	 */
+	boolean offer(EventType type, int detail, long time, long tick, int x, int y) {
+		long position;
+		while (true) {
+			position = tail.get();
+			long sequence = sequences.get((int) position & mask);
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+			} else if (sequence < position) {
+				// the consumer has not freed the slot yet
+				droppedCount.incrementAndGet();
+				return false;
+			}
+		}
+		int slot = (int) position & mask;
+		types[slot] = (byte) type.ordinal();
+		details[slot] = (byte) detail;
+		times[slot] = time;
+		ticks[slot] = tick;
+		xs[slot] = x;
+		ys[slot] = y;
+		sequences.lazySet(slot, position + 1);
+		return true;
+	}
+
+	/**
+	 * Passes published events to {@code sink} in order of their positions. Must
+	 * be called from one thread
+	 * 
+	 * @param sink  - receives events
+	 * @param limit - maximal count of events to pass
+	 * @return count of passed events
+	 * @throws IOException thrown by {@code sink}, the event is consumed anyway
+	 */
+	int drain(Sink sink, int limit) throws IOException {
+		int count = 0;
+		while (count < limit) {
+			int slot = (int) head & mask;
+			if (sequences.get(slot) != head + 1) {
+				break;
+			}
+			try {
+				sink.accept(types[slot], details[slot], times[slot], ticks[slot], xs[slot], ys[slot]);
+			} finally {
+				sequences.lazySet(slot, head + mask + 1);
+				head++;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Receives drained events
+	 */
+	interface Sink {
+		void accept(int type, int detail, long time, long tick, int x, int y) throws IOException;
+	}
+}
@@ -0,0 +1,168 @@
+package snake.telemetry;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads files written by {@code EventWriter}. A file which is still written is
+ * read up to the last whole record which has reached it, the rest is left for
+ * the next read
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class EventReader {
+	// =============== Constants ===============
+	/**
+	 * Kinds of events by their ordinals
+	 */
+	private static final EventType[] TYPES = EventType.values();
+	/**
+	 * Names of files written by {@code EventWriter}:
+	 * {@code snake-events-<time>-<number>.gz}
+	 */
+	private static final Pattern FILE_NAME = Pattern.compile(Pattern.quote(EventWriter.FILE_PREFIX) + "(\\d+)-(\\d+)"
+			+ Pattern.quote(EventWriter.FILE_SUFFIX));
+
+	// =============== Methods ===============
+	/**
+	 * Prints events of files, oldest first. The newest file of a directory may be
+	 * still written, it is skipped if it can not be read
+	 * 
+	 * @param args - files of events or directories with them, {@code snake.eventDir}
+	 *             if none
+	 * @throws IOException if a file can not be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			String directory = System.getProperty("snake.eventDir");
+			if (directory == null) {
+				System.err.println("Usage: EventReader <file or directory>...");
+				return;
+			}
+			args = new String[] { directory };
+		}
+		for (String arg : args) {
+			File path = new File(arg);
+			File[] files = path.isDirectory() ? listFiles(path) : new File[] { path };
+			for (int i = 0; i < files.length; i++) {
+				try {
+					read(files[i], System.out::println);
+				} catch (IOException e) {
+					if (!path.isDirectory() || i < files.length - 1) {
+						throw e;
+					}
+					System.err.println("Skipped " + files[i] + ": " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes every event of a file to {@code consumer}
+	 * 
+	 * @param file
+	 * @param consumer
+	 * @return count of events
+	 * @throws IOException if the file can not be read or is not a file of events
+	 */
+	public static long read(File file, Consumer<GameEvent> consumer) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)), 1 << 16))) {
+			if (in.readInt() != EventWriter.MAGIC || in.readByte() != EventWriter.VERSION) {
+				throw new IOException("Not a file of events: " + file);
+			}
+			long count = 0;
+			while (true) {
+				GameEvent event;
+				try {
+					event = readEvent(in, file);
+				} catch (EOFException e) {
+					// the end of a finished file, or of bytes of a written one which may stop
+					// inside a record
+					return count;
+				}
+				if (event != null) {
+					consumer.accept(event);
+					count++;
+				}
+			}
+		} catch (EOFException e) {
+			// a file just started, its headers have not reached it yet
+			return 0;
+		}
+	}
+
+	/**
+	 * Reads one record
+	 * 
+	 * @param in
+	 * @param file - file of {@code in}, for errors
+	 * @return the event, null if its kind is added later
+	 * @throws IOException if the record is damaged or not read to its end
+	 */
+	private static GameEvent readEvent(DataInputStream in, File file) throws IOException {
+		int length = in.readUnsignedShort();
+		if (length < EventWriter.RECORD_SIZE) {
+			throw new IOException("Damaged file of events: " + file);
+		}
+		int type = in.readUnsignedByte();
+		int detail = in.readUnsignedByte();
+		long time = in.readLong();
+		long tick = in.readLong();
+		int x = in.readInt();
+		int y = in.readInt();
+		for (int rest = length - EventWriter.RECORD_SIZE; rest > 0; rest--) {
+			in.readByte();
+		}
+		return type < TYPES.length ? new GameEvent(TYPES[type], detail, time, tick, x, y) : null;
+	}
+
+	/**
+	 * Returns files of events in a directory, oldest first
+	 * 
+	 * @param directory
+	 * @return the files, none if the directory does not exist
+	 */
+	public static File[] listFiles(File directory) {
+		File[] files = directory.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+		if (files == null) {
+			return new File[0];
+		}
+		Arrays.sort(files, Comparator.comparingLong(EventReader::startTime).thenComparingInt(EventReader::number));
+		return files;
+	}
+
+	/**
+	 * Returns when a file is started, from its name
+	 */
+	private static long startTime(File file) {
+		return Long.parseLong(nameMatcher(file).group(1));
+	}
+
+	/**
+	 * Returns number of a file among files of its writer, from its name
+	 */
+	private static int number(File file) {
+		return Integer.parseInt(nameMatcher(file).group(2));
+	}
+
+	/**
+	 * Matches the name of a listed file against {@code FILE_NAME}
+	 */
+	private static Matcher nameMatcher(File file) {
+		Matcher matcher = FILE_NAME.matcher(file.getName());
+		matcher.matches();
+		return matcher;
+	}
+}
@@ -0,0 +1,42 @@
+package snake.telemetry;
+
+/**
+ * Kinds of events of a game. Meaning of the detail and the coordinates of an
+ * event depends on its kind
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public enum EventType {
+	/**
+	 * A turn is started or continued, the snake's head is on (x,y)
+	 */
+	START,
+	/**
+	 * A tick is made, the snake's head is on (x,y)
+	 */
+	TICK,
+	/**
+	 * A tick uses another direction, the detail is the ordinal of
+	 * {@code Direction}
+	 */
+	TURN,
+	/**
+	 * A fruit is eaten by the head on (x,y), the detail is the ordinal of
+	 * {@code FruitKind}
+	 */
+	EAT,
+	/**
+	 * A fruit is placed on (x,y), the detail is the ordinal of {@code FruitKind}
+	 */
+	SPAWN,
+	/**
+	 * A turn is finished with the head on (x,y), the detail is the ordinal of
+	 * {@code FinishReason}
+	 */
+	DEATH,
+	/**
+	 * Events are lost because the buffer was full, the tick is their count
+	 */
+	DROPPED
+}
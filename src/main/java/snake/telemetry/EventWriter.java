@@ -0,0 +1,383 @@
+package snake.telemetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes events of games to rolling gzip files on its own thread. Events are
+ * put to a lock-free {@code EventBuffer}, so {@code emit()} never waits for
+ * the writer or a disk: when events come faster than they are written the
+ * buffer fills up and the rest are dropped, the writer then writes a
+ * {@code DROPPED} event with their count.
+ * 
+ * A file starts with {@code MAGIC} and {@code VERSION}, then every event is a
+ * record prefixed with its length in an unsigned short, so a reader skips
+ * fields added later. A file is closed and a new one is started when
+ * {@code fileLimit} bytes are written to it, the oldest files are removed when
+ * there are more than {@code maxFiles}. After an error, e.g. a full disk, events
+ * are counted as dropped and writing is tried again after a pause growing up
+ * to {@code MAX_RETRY_NANOS}; old files are removed only after a new file is
+ * opened successfully
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public class EventWriter {
+	// =============== Constants ===============
+	/**
+	 * First bytes of a file, "SNEV"
+	 */
+	public static final int MAGIC = 0x534E4556;
+	/**
+	 * Version of the format
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Length of a record of version 1
+	 */
+	public static final int RECORD_SIZE = 26;
+	/**
+	 * Prefix of names of files
+	 */
+	public static final String FILE_PREFIX = "snake-events-";
+	/**
+	 * Suffix of names of files
+	 */
+	public static final String FILE_SUFFIX = ".gz";
+	/**
+	 * Default count of events kept by the buffer
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	/**
+	 * Default count of uncompressed bytes of a file
+	 */
+	public static final long DEFAULT_FILE_LIMIT = 16 << 20;
+	/**
+	 * Default count of kept files
+	 */
+	public static final int DEFAULT_MAX_FILES = 16;
+	/**
+	 * Maximal count of events written between checks of the limit of a file
+	 */
+	private static final int BATCH_SIZE = 4096;
+	/**
+	 * How long the thread sleeps when the buffer is empty
+	 */
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+	/**
+	 * How often written events are flushed to a file, so a running game can be
+	 * read
+	 */
+	private static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+	/**
+	 * Pause after the first error, doubled on every next one
+	 */
+	private static final long MIN_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+	/**
+	 * Longest pause after an error
+	 */
+	private static final long MAX_RETRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+	/**
+	 * Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EventWriter.class);
+	/**
+	 * Directory of files
+	 */
+	private final File directory;
+	/**
+	 * Count of uncompressed bytes after which a file is closed
+	 */
+	private final long fileLimit;
+	/**
+	 * Count of kept files
+	 */
+	private final int maxFiles;
+	/**
+	 * Events waiting to be written
+	 */
+	private final EventBuffer buffer;
+	/**
+	 * Thread writing events
+	 */
+	private final Thread thread;
+
+	// =============== Fields ===============
+	/**
+	 * Flag showing that the writer should write the rest of events and stop
+	 */
+	private volatile boolean isClosed;
+	/**
+	 * Current file, null before the first event and after an error
+	 */
+	private DataOutputStream out;
+	/**
+	 * Count of bytes written to the current file
+	 */
+	private long fileSize;
+	/**
+	 * Count of files started by the writer, makes their names unique
+	 */
+	private int fileCount;
+	/**
+	 * Count of dropped events which are already written
+	 */
+	private long reportedDroppedCount;
+	/**
+	 * Count of events thrown away while writing is paused after an error
+	 */
+	private long lostCount;
+	/**
+	 * Flag showing that the last attempt to write has failed
+	 */
+	private boolean isFailing;
+	/**
+	 * When writing is tried again after an error, by {@code System.nanoTime()}
+	 */
+	private long retryAt;
+	/**
+	 * Current pause after an error, 0 when a flush has succeeded since
+	 */
+	private long retryNanos;
+
+	// =============== Constructors ===============
+	/**
+	 * Creates a writer with default limits
+	 * 
+	 * @param directory - directory of files, created if needed
+	 */
+	public EventWriter(File directory) {
+		this(directory, DEFAULT_CAPACITY, DEFAULT_FILE_LIMIT, DEFAULT_MAX_FILES);
+	}
+
+	/**
+	 * Creates a writer and starts its thread. The rest of events are written on
+	 * exit of the JVM
+	 * 
+	 * @param directory - directory of files, created if needed
+	 * @param capacity  - count of events the buffer keeps
+	 * @param fileLimit - count of uncompressed bytes of a file
+	 * @param maxFiles  - count of kept files
+	 */
+	public EventWriter(File directory, int capacity, long fileLimit, int maxFiles) {
+		if (fileLimit <= 0 || maxFiles <= 0) {
+			throw new IllegalArgumentException("Wrong limits: " + fileLimit + ", " + maxFiles);
+		}
+		this.directory = directory;
+		this.fileLimit = fileLimit;
+		this.maxFiles = maxFiles;
+		buffer = new EventBuffer(capacity);
+		thread = new Thread(this::run, "snake-events");
+		thread.setDaemon(true);
+		thread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "snake-events-close"));
+	}
+
+	// =============== Get/Set ===============
+	/**
+	 * Returns count of events dropped because the buffer was full
+	 * 
+	 * @return count of dropped events
+	 */
+	public long getDroppedCount() {
+		return buffer.getDroppedCount();
+	}
+
+	// =============== Methods ===============
+	/**
+	 * Queues an event to be written. Does not wait and does not allocate, may be
+	 * called from any thread
+	 * 
+	 * @param type
+	 * @param detail - ordinal of a direction, a fruit or a finish reason
+	 * @param tick
+	 * @param x
+	 * @param y
+	 * @return false if the event is dropped
+	 */
+	public boolean emit(EventType type, int detail, long tick, int x, int y) {
+		return buffer.offer(type, detail, System.currentTimeMillis(), tick, x, y);
+	}
+
+	/**
+	 * Writes queued events, closes the current file and stops the thread. Events
+	 * emitted later are not written
+	 */
+	public void close() {
+		isClosed = true;
+		LockSupport.unpark(thread);
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Loop of the thread
+	 */
+	private void run() {
+		long flushedAt = System.nanoTime();
+		boolean isDirty = false;
+		while (true) {
+			boolean isLast = isClosed;
+			int count = 0;
+			try {
+				count = buffer.drain(this::write, BATCH_SIZE);
+				reportDropped();
+				if (count > 0) {
+					isDirty = true;
+				}
+				if (isDirty && (isLast || System.nanoTime() - flushedAt >= FLUSH_NANOS)) {
+					if (out != null) {
+						out.flush();
+						retryNanos = 0;
+					}
+					flushedAt = System.nanoTime();
+					isDirty = false;
+				}
+			} catch (IOException e) {
+				fail(e);
+			}
+			if (isLast && count == 0) {
+				closeFile();
+				return;
+			}
+			if (count == 0) {
+				LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Writes one event, starts a new file if needed
+	 */
+	private void write(int type, int detail, long time, long tick, int x, int y) throws IOException {
+		if (out == null) {
+			if (isPaused()) {
+				lostCount++;
+				return;
+			}
+			openFile();
+		}
+		out.writeShort(RECORD_SIZE);
+		out.writeByte(type);
+		out.writeByte(detail);
+		out.writeLong(time);
+		out.writeLong(tick);
+		out.writeInt(x);
+		out.writeInt(y);
+		fileSize += 2 + RECORD_SIZE;
+		if (fileSize >= fileLimit) {
+			closeFile();
+		}
+	}
+
+	/**
+	 * Writes a {@code DROPPED} event if events have been dropped since the
+	 * previous one
+	 */
+	private void reportDropped() throws IOException {
+		long dropped = buffer.getDroppedCount() + lostCount;
+		if (dropped != reportedDroppedCount && !isPaused()) {
+			write(EventType.DROPPED.ordinal(), 0, System.currentTimeMillis(), dropped - reportedDroppedCount, 0, 0);
+			reportedDroppedCount = dropped;
+		}
+	}
+
+	/**
+	 * Checks if writing is paused after an error
+	 * 
+	 * @return true if events are thrown away now
+	 */
+	private boolean isPaused() {
+		return isFailing && System.nanoTime() - retryAt < 0;
+	}
+
+	/**
+	 * Closes the current file after an error and pauses writing
+	 * 
+	 * @param e - the error
+	 */
+	private void fail(IOException e) {
+		closeFile();
+		isFailing = true;
+		retryNanos = retryNanos == 0 ? MIN_RETRY_NANOS : Math.min(retryNanos * 2, MAX_RETRY_NANOS);
+		retryAt = System.nanoTime() + retryNanos;
+		LOGGER.error("Can not write events to " + directory + ", retrying in "
+				+ TimeUnit.NANOSECONDS.toSeconds(retryNanos) + " s", e);
+	}
+
+	/**
+	 * Starts a new file, its header is flushed at once. Removes the oldest files
+	 * only if the new one is opened, a file which can not be opened is removed
+	 */
+	private void openFile() throws IOException {
+		directory.mkdirs();
+		File file = new File(directory, FILE_PREFIX + System.currentTimeMillis() + "-" + fileCount++ + FILE_SUFFIX);
+		DataOutputStream opened = null;
+		try {
+			opened = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file), 1 << 16, true), 1 << 16));
+			opened.writeInt(MAGIC);
+			opened.writeByte(VERSION);
+			opened.flush();
+		} catch (IOException e) {
+			if (opened != null) {
+				try {
+					opened.close();
+				} catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+			}
+			file.delete();
+			throw e;
+		}
+		out = opened;
+		fileSize = 5;
+		isFailing = false;
+		removeOldFiles();
+	}
+
+	/**
+	 * Finishes the current file, it is readable to its end then
+	 */
+	private void closeFile() {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOGGER.error("Can not close a file of events in " + directory, e);
+		}
+		out = null;
+	}
+
+	/**
+	 * Removes files of events above {@code maxFiles}, the oldest first
+	 */
+	private void removeOldFiles() {
+		File[] files = EventReader.listFiles(directory);
+		for (int i = 0; i < files.length - maxFiles; i++) {
+			if (!files[i].delete()) {
+				LOGGER.warn("Can not remove old file of events " + files[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package snake.telemetry;
+
+import snake.engine.Direction;
+import snake.engine.FinishReason;
+import snake.engine.FruitKind;
+
+/**
+ * Event read from a file of events
+ * 
+ * @author Yevhenii Kozhevin
+ *
+ */
+public final class GameEvent {
+	// =============== Constants ===============
+	/**
+	 * Kind of the event
+	 */
+	private final EventType type;
+	/**
+	 * Direction, fruit or finish reason of the event by its ordinal
+	 */
+	private final int detail;
+	/**
+	 * When the event has happened, in milliseconds since the epoch
+	 */
+	private final long time;
+	/**
+	 * Tick of the event
+	 */
+	private final long tick;
+	/**
+	 * X coordinate of the event
+	 */
+	private final int x;
+	/**
+	 * Y coordinate of the event
+	 */
+	private final int y;
+
+	// =============== Constructors ===============
+	GameEvent(EventType type, int detail, long time, long tick, int x, int y) {
+		this.type = type;
+		this.detail = detail;
+		this.time = time;
+		this.tick = tick;
+		this.x = x;
+		this.y = y;
+	}
+
+	// =============== Get/Set ===============
+	public EventType getType() {
+		return type;
+	}
+
+	public int getDetail() {
+		return detail;
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	// =============== Methods ===============
+	@Override
+	public String toString() {
+		return time + " " + type + " tick=" + tick + " " + detailName() + " x=" + x + " y=" + y;
+	}
+
+	/**
+	 * Returns the name of the direction, fruit or finish reason of the event
+	 * 
+	 * @return name of the detail, its ordinal if it is unknown
+	 */
+	public String detailName() {
+		Enum<?>[] values;
+		switch (type) {
+		case TURN:
+			values = Direction.values();
+			break;
+		case EAT:
+		case SPAWN:
+			values = FruitKind.values();
+			break;
+		case DEATH:
+			values = FinishReason.values();
+			break;
+		default:
+			return String.valueOf(detail);
+		}
+		return detail < values.length ? values[detail].name() : String.valueOf(detail);
+	}
+}